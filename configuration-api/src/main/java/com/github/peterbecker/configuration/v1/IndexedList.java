@@ -0,0 +1,26 @@
+package com.github.peterbecker.configuration.v1;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable list of nested configuration objects with hash indexes on some of their options.
+ *
+ * The indexes are built when the configuration is loaded, see {@link Option#indexedBy()}. Values are matched with
+ * equals, so they have to be of the return type of the option, e.g. an Integer for an int option.
+ */
+public interface IndexedList<T> extends List<T> {
+    /**
+     * Returns the first element where the option given has the value given.
+     *
+     * @throws IllegalArgumentException if the list is not indexed by the option
+     */
+    Optional<T> lookup(String option, Object value);
+
+    /**
+     * Returns all elements where the option given has the value given, in list order.
+     *
+     * @throws IllegalArgumentException if the list is not indexed by the option
+     */
+    List<T> lookupAll(String option, Object value);
+}
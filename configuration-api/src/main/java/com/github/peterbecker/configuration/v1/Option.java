@@ -31,4 +31,14 @@ public @interface Option {
      * if it will it will most likely use resource bundles based on the option names as keys.
      */
     String description() default NOT_SET;
+
+    /**
+     * The options of the nested interface by which the elements of a list option are indexed.
+     *
+     * Only valid on options returning a list of nested interfaces, the options named have to be single values (possibly
+     * wrapped in an Optional). The list is then an {@link IndexedList}, where elements can be looked up by the values
+     * of these options without scanning the list. Declaring the option as IndexedList allows calling the lookup methods
+     * without a cast.
+     */
+    String[] indexedBy() default {};
 }
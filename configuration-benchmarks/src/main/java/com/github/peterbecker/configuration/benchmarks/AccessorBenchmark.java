@@ -0,0 +1,71 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import com.github.peterbecker.configuration.BindingMode;
+import com.github.peterbecker.configuration.Configuration;
+import com.github.peterbecker.configuration.benchmarks.SyntheticConfigurationGenerator.FileFormat;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calls to the accessors of a configuration object that has been loaded already.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+    @Param({"PROXY", "GENERATED_CLASS", "LAZY"})
+    private BindingMode bindingMode;
+
+    private BenchmarkConfiguration config;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path directory = Files.createTempDirectory("configuration-benchmark");
+        Path file = SyntheticConfigurationGenerator.write(directory, FileFormat.PROPERTIES, 10);
+        config = Configuration
+                .loadInterface(BenchmarkConfiguration.class)
+                .fromStore(new PropertiesStore(file))
+                .withBindingMode(bindingMode)
+                .done();
+        Configuration.validateAll(config);
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public String plainAccessor() {
+        return config.name();
+    }
+
+    @Benchmark
+    public int primitiveAccessor() {
+        return config.port();
+    }
+
+    @Benchmark
+    public String defaultMethod() {
+        return config.address();
+    }
+
+    @Benchmark
+    public String nestedAccessor() {
+        return config.primary().host();
+    }
+}
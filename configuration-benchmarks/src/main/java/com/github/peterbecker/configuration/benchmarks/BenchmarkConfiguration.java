@@ -0,0 +1,31 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The root interface of the synthetic configurations, see {@linkplain SyntheticConfigurationGenerator}.
+ */
+public interface BenchmarkConfiguration {
+    String name();
+
+    int port();
+
+    long timeout();
+
+    double ratio();
+
+    boolean enabled();
+
+    Duration interval();
+
+    ServiceConfiguration primary();
+
+    List<ServiceConfiguration> services();
+
+    List<Integer> ports();
+
+    default String address() {
+        return name() + ":" + port();
+    }
+}
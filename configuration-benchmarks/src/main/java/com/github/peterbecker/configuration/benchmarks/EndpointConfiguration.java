@@ -0,0 +1,9 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import java.time.Duration;
+
+public interface EndpointConfiguration {
+    String path();
+
+    Duration timeout();
+}
@@ -0,0 +1,87 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import com.github.peterbecker.configuration.BindingMode;
+import com.github.peterbecker.configuration.Configuration;
+import com.github.peterbecker.configuration.benchmarks.SyntheticConfigurationGenerator.FileFormat;
+import com.github.peterbecker.configuration.parser.PrimitiveLists;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures iterating over the lists of a configuration with many list elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    @Param({"100", "1000"})
+    private int services;
+
+    @Param({"PROXY", "GENERATED_CLASS"})
+    private BindingMode bindingMode;
+
+    private BenchmarkConfiguration config;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path directory = Files.createTempDirectory("configuration-benchmark");
+        Path file = SyntheticConfigurationGenerator.write(directory, FileFormat.PROPERTIES, services);
+        config = Configuration
+                .loadInterface(BenchmarkConfiguration.class)
+                .fromStore(new PropertiesStore(file))
+                .withBindingMode(bindingMode)
+                .done();
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long sumPortsBoxed() {
+        long sum = 0;
+        for (Integer port : config.ports()) {
+            sum += port;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumPortsPrimitive() {
+        PrimitiveLists.IntList ports = (PrimitiveLists.IntList) config.ports();
+        long sum = 0;
+        for (int i = 0; i < ports.size(); i++) {
+            sum += ports.getInt(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long walkServices() {
+        long sum = 0;
+        List<ServiceConfiguration> services = config.services();
+        for (ServiceConfiguration service : services) {
+            sum += service.port() + service.tags().size();
+            for (EndpointConfiguration endpoint : service.endpoints()) {
+                sum += endpoint.timeout().getSeconds();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import com.github.peterbecker.configuration.BindingMode;
+import com.github.peterbecker.configuration.Configuration;
+import com.github.peterbecker.configuration.storage.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a configuration file into a store and binding the configuration interface to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+    @Param({"10", "100", "1000"})
+    private int services;
+
+    @Param
+    private StoreType storeType;
+
+    @Param({"PROXY"})
+    private BindingMode bindingMode;
+
+    private Path directory;
+    private Path file;
+    private Store store;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("configuration-benchmark");
+        file = SyntheticConfigurationGenerator.write(directory, storeType.getFileFormat(), services);
+        store = storeType.getStoreFactory().getStore(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    /**
+     * Reads the file into a store, without binding.
+     */
+    @Benchmark
+    public Store readStore() throws IOException {
+        return storeType.getStoreFactory().getStore(file);
+    }
+
+    /**
+     * Binds the interface to a store that has been read already.
+     */
+    @Benchmark
+    public BenchmarkConfiguration bind() throws Exception {
+        return Configuration
+                .loadInterface(BenchmarkConfiguration.class)
+                .fromStore(store)
+                .withBindingMode(bindingMode)
+                .done();
+    }
+
+    /**
+     * Reads the file and binds the interface, i.e. the full cost of loading.
+     */
+    @Benchmark
+    public BenchmarkConfiguration load() throws Exception {
+        return Configuration
+                .loadInterface(BenchmarkConfiguration.class)
+                .fromStore(storeType.getStoreFactory().getStore(file))
+                .withBindingMode(bindingMode)
+                .done();
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ServiceConfiguration {
+    String host();
+
+    int port();
+
+    double weight();
+
+    Optional<String> description();
+
+    List<String> tags();
+
+    List<EndpointConfiguration> endpoints();
+}
@@ -0,0 +1,42 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import com.github.peterbecker.configuration.benchmarks.SyntheticConfigurationGenerator.FileFormat;
+import com.github.peterbecker.configuration.storage.JsonStore;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.SnapshotStore;
+import com.github.peterbecker.configuration.storage.StoreFactory;
+import com.github.peterbecker.configuration.storage.StreamingJsonStore;
+import com.github.peterbecker.configuration.storage.StreamingXmlStore;
+import com.github.peterbecker.configuration.storage.StreamingYamlStore;
+import com.github.peterbecker.configuration.storage.XmlStore;
+import com.github.peterbecker.configuration.storage.YamlStore;
+
+/**
+ * The stores compared in the benchmarks, with the file format each reads.
+ */
+public enum StoreType {
+    PROPERTIES(FileFormat.PROPERTIES, PropertiesStore::new),
+    XML(FileFormat.XML, XmlStore::new),
+    XML_STREAMING(FileFormat.XML, StreamingXmlStore::new),
+    JSON(FileFormat.JSON, JsonStore::new),
+    JSON_STREAMING(FileFormat.JSON, StreamingJsonStore::new),
+    YAML(FileFormat.YAML, YamlStore::new),
+    YAML_STREAMING(FileFormat.YAML, StreamingYamlStore::new),
+    SNAPSHOT(FileFormat.SNAPSHOT, SnapshotStore::new);
+
+    private final FileFormat fileFormat;
+    private final StoreFactory storeFactory;
+
+    StoreType(FileFormat fileFormat, StoreFactory storeFactory) {
+        this.fileFormat = fileFormat;
+        this.storeFactory = storeFactory;
+    }
+
+    public FileFormat getFileFormat() {
+        return fileFormat;
+    }
+
+    public StoreFactory getStoreFactory() {
+        return storeFactory;
+    }
+}
@@ -0,0 +1,263 @@
+package com.github.peterbecker.configuration.benchmarks;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.SnapshotWriter;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Generates configurations for {@linkplain BenchmarkConfiguration} in all supported file formats.
+ * <p/>
+ * The size is controlled by the number of services. Each service has five tags and three endpoints, and the root has
+ * ten ports per service, so the number of values grows linearly with the number of services while the nesting goes
+ * three levels deep.
+ */
+public class SyntheticConfigurationGenerator {
+    public enum FileFormat {
+        PROPERTIES("properties"),
+        XML("xml"),
+        JSON("json"),
+        YAML("yaml"),
+        SNAPSHOT("snapshot");
+
+        private final String extension;
+
+        FileFormat(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int TAGS_PER_SERVICE = 5;
+    private static final int ENDPOINTS_PER_SERVICE = 3;
+    private static final int PORTS_PER_SERVICE = 10;
+
+    /**
+     * Writes the configuration file for the given number of services into the directory, returning the file.
+     */
+    public static Path write(Path directory, FileFormat format, int services) throws IOException {
+        Path file = directory.resolve("benchmark-" + services + "." + format.getExtension());
+        Map<String, Object> data = create(services);
+        switch (format) {
+            case PROPERTIES:
+                writeProperties(file, data);
+                break;
+            case XML:
+                writeXml(file, data);
+                break;
+            case JSON:
+                writeJson(file, data);
+                break;
+            case YAML:
+                writeYaml(file, data);
+                break;
+            case SNAPSHOT:
+                writeSnapshot(file, data);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+        return file;
+    }
+
+    /**
+     * Creates the data as a tree of maps, lists and strings.
+     */
+    static Map<String, Object> create(int services) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("name", "benchmark");
+        root.put("port", "8080");
+        root.put("timeout", "30000");
+        root.put("ratio", "0.75");
+        root.put("enabled", "true");
+        root.put("interval", "PT30S");
+        root.put("primary", createService(0));
+        List<Object> serviceList = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            serviceList.add(createService(i));
+        }
+        root.put("services", serviceList);
+        List<Object> ports = new ArrayList<>();
+        for (int i = 0; i < services * PORTS_PER_SERVICE; i++) {
+            ports.add(String.valueOf(10000 + i));
+        }
+        root.put("ports", ports);
+        return root;
+    }
+
+    private static Map<String, Object> createService(int index) {
+        Map<String, Object> service = new LinkedHashMap<>();
+        service.put("host", "host-" + index + ".example.com");
+        service.put("port", String.valueOf(1000 + index));
+        service.put("weight", String.valueOf(index / 10.0));
+        if (index % 2 == 0) {
+            service.put("description", "Service number " + index);
+        }
+        List<Object> tags = new ArrayList<>();
+        for (int i = 0; i < TAGS_PER_SERVICE; i++) {
+            tags.add("tag-" + index + "-" + i);
+        }
+        service.put("tags", tags);
+        List<Object> endpoints = new ArrayList<>();
+        for (int i = 0; i < ENDPOINTS_PER_SERVICE; i++) {
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("path", "/api/" + index + "/" + i);
+            endpoint.put("timeout", "PT" + (i + 1) + "S");
+            endpoints.add(endpoint);
+        }
+        service.put("endpoints", endpoints);
+        return service;
+    }
+
+    private static void writeProperties(Path file, Map<String, Object> data) throws IOException {
+        Properties properties = new Properties();
+        flatten("", data, properties);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void flatten(String prefix, Object node, Properties properties) {
+        if (node instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) node).entrySet()) {
+                flatten(prefix + entry.getKey() + ".", entry.getValue(), properties);
+            }
+        } else if (node instanceof List) {
+            List<Object> list = (List<Object>) node;
+            for (int i = 0; i < list.size(); i++) {
+                flatten(prefix + i + ".", list.get(i), properties);
+            }
+        } else {
+            properties.setProperty(prefix.substring(0, prefix.length() - 1), (String) node);
+        }
+    }
+
+    /**
+     * Compiles the properties representation into a snapshot, as a deployment would do ahead of time.
+     */
+    private static void writeSnapshot(Path file, Map<String, Object> data) throws IOException {
+        Properties properties = new Properties();
+        flatten("", data, properties);
+        try {
+            SnapshotWriter.write(BenchmarkConfiguration.class, new PropertiesStore(properties), file);
+        } catch (ConfigurationException e) {
+            throw new IOException("Can not compile snapshot", e);
+        }
+    }
+
+    private static void writeXml(Path file, Map<String, Object> data) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("configuration");
+            writeXmlContent(writer, data);
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Can not write XML", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeXmlContent(XMLStreamWriter writer, Map<String, Object> data) throws XMLStreamException {
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            List<Object> elements = entry.getValue() instanceof List
+                    ? (List<Object>) entry.getValue()
+                    : Collections.singletonList(entry.getValue());
+            for (Object element : elements) {
+                writer.writeStartElement(entry.getKey());
+                if (element instanceof Map) {
+                    writeXmlContent(writer, (Map<String, Object>) element);
+                } else {
+                    writer.writeCharacters((String) element);
+                }
+                writer.writeEndElement();
+            }
+        }
+    }
+
+    private static void writeJson(Path file, Map<String, Object> data) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonGenerator generator = Json.createGenerator(out)) {
+            generator.writeStartObject();
+            writeJsonContent(generator, data);
+            generator.writeEnd();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeJsonContent(JsonGenerator generator, Map<String, Object> data) {
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                generator.writeStartObject(entry.getKey());
+                writeJsonContent(generator, (Map<String, Object>) value);
+                generator.writeEnd();
+            } else if (value instanceof List) {
+                generator.writeStartArray(entry.getKey());
+                for (Object element : (List<Object>) value) {
+                    if (element instanceof Map) {
+                        generator.writeStartObject();
+                        writeJsonContent(generator, (Map<String, Object>) element);
+                        generator.writeEnd();
+                    } else {
+                        generator.write((String) element);
+                    }
+                }
+                generator.writeEnd();
+            } else {
+                generator.write(entry.getKey(), (String) value);
+            }
+        }
+    }
+
+    private static void writeYaml(Path file, Map<String, Object> data) throws IOException {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new Yaml(options).dump(data, out);
+        }
+    }
+
+    /**
+     * Writes configurations in all formats, arguments are the target directory and the numbers of services.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SyntheticConfigurationGenerator <directory> <services>...");
+            System.exit(1);
+        }
+        Path directory = Paths.get(args[0]);
+        Files.createDirectories(directory);
+        for (int i = 1; i < args.length; i++) {
+            for (FileFormat format : FileFormat.values()) {
+                System.out.println(write(directory, format, Integer.parseInt(args[i])));
+            }
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.github.peterbecker.configuration.storage;
 
 import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
 
 import javax.json.*;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 public class JsonStore implements Store {
     private final JsonObject data;
 
     public JsonStore(Path resource) throws IOException {
-        JsonReader reader = Json.createReader(Files.newBufferedReader(resource));
-        data = reader.readObject();
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(JsonStore.class, resource)) {
+            JsonReader reader = Json.createReader(Files.newBufferedReader(resource));
+            data = reader.readObject();
+        }
     }
 
     @Override
@@ -21,6 +28,24 @@ public class JsonStore implements Store {
         return getNode(data, key).map(JsonStore::getString);
     }
 
+    @Override
+    public OptionalInt getListSize(Key key) throws ConfigurationException {
+        Optional<JsonValue> node = getContextObject(data, key).map(jo -> jo.get(key.getOptionName()));
+        if (!node.isPresent() || node.get().getValueType() != JsonValue.ValueType.ARRAY) {
+            return OptionalInt.of(0);
+        }
+        return OptionalInt.of(node.get().asJsonArray().size());
+    }
+
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) throws ConfigurationException {
+        Optional<JsonValue> node = getNode(data, key);
+        if (!node.isPresent() || node.get().getValueType() != JsonValue.ValueType.OBJECT) {
+            return Optional.of(Collections.emptySet());
+        }
+        return Optional.of(Collections.unmodifiableSet(node.get().asJsonObject().keySet()));
+    }
+
     public Optional<JsonValue> getNode(JsonObject context, Key key) throws ConfigurationException {
         Optional<JsonValue> node = getContextObject(context, key).map(jo -> jo.get(key.getOptionName()));
         if (key.isIndexed()) {
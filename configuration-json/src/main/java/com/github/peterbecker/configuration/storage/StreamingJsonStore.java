@@ -0,0 +1,192 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * A Store reading JSON files in a single pass with the streaming {@linkplain JsonParser}.
+ * <p/>
+ * Instead of keeping the object tree, the values are stored in a flat index by path. Object members add
+ * <code>/name</code> to the path, array elements add <code>#index</code>, e.g. <code>/nested/stringValues#1</code>.
+ * Lookups behave the same as in the {@linkplain JsonStore}.
+ */
+public class StreamingJsonStore implements Store {
+    /**
+     * Marks objects in {@linkplain #containers}, arrays are stored with their size.
+     */
+    private static final int OBJECT = -1;
+
+    private static final Key.PathFormat PATHS = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            String path = contextPath + "/" + key.getOptionName();
+            return key.isIndexed() ? path + "#" + key.getIndex() : path;
+        }
+    };
+
+    /**
+     * Scalar values by path, JSON null is stored as null value.
+     */
+    private final Map<String, String> values = new HashMap<>();
+    /**
+     * Objects and arrays by path, see {@linkplain #OBJECT}.
+     */
+    private final Map<String, Integer> containers = new HashMap<>();
+    /**
+     * The member names of the objects by path, objects without members are not contained.
+     */
+    private final Map<String, Set<String>> members = new HashMap<>();
+
+    public StreamingJsonStore(Path resource) throws IOException {
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(StreamingJsonStore.class, resource);
+             Reader in = Files.newBufferedReader(resource);
+             JsonParser parser = Json.createParser(in)) {
+            index(parser);
+        }
+    }
+
+    private void index(JsonParser parser) throws IOException {
+        if (!parser.hasNext() || parser.next() != JsonParser.Event.START_OBJECT) {
+            throw new IOException("JSON file does not contain an object.");
+        }
+        containers.put("", OBJECT);
+        Deque<Frame> frames = new ArrayDeque<>();
+        frames.push(new Frame("", false));
+        String name = null;
+        while (!frames.isEmpty()) {
+            JsonParser.Event event = parser.next();
+            if (event == JsonParser.Event.KEY_NAME) {
+                name = parser.getString();
+                continue;
+            }
+            Frame frame = frames.peek();
+            if (event == JsonParser.Event.END_OBJECT || event == JsonParser.Event.END_ARRAY) {
+                frames.pop();
+                if (frame.array) {
+                    containers.put(frame.path, frame.size);
+                } else if (frame.members != null) {
+                    members.put(frame.path, Collections.unmodifiableSet(frame.members));
+                }
+                continue;
+            }
+            String path;
+            if (frame.array) {
+                path = frame.path + "#" + frame.size++;
+            } else {
+                path = frame.path + "/" + name;
+                if (frame.members == null) {
+                    frame.members = new LinkedHashSet<>();
+                }
+                frame.members.add(name);
+            }
+            switch (event) {
+                case START_OBJECT:
+                    containers.put(path, OBJECT);
+                    frames.push(new Frame(path, false));
+                    break;
+                case START_ARRAY:
+                    frames.push(new Frame(path, true));
+                    break;
+                case VALUE_STRING:
+                    values.put(path, parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    values.put(path, parser.getBigDecimal().toString());
+                    break;
+                case VALUE_TRUE:
+                    values.put(path, "true");
+                    break;
+                case VALUE_FALSE:
+                    values.put(path, "false");
+                    break;
+                case VALUE_NULL:
+                default:
+                    values.put(path, null);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public Optional<String> getValue(Key key) throws ConfigurationException {
+        if (!hasContextObject(key)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(values.get(getPath(key)));
+    }
+
+    @Override
+    public OptionalInt getListSize(Key key) throws ConfigurationException {
+        if (!hasContextObject(key)) {
+            return OptionalInt.of(0);
+        }
+        Integer size = containers.get(getPath(Key.of(key.getContext(), key.getOptionName(), -1)));
+        return OptionalInt.of(size == null || size == OBJECT ? 0 : size);
+    }
+
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) throws ConfigurationException {
+        if (!hasContextObject(key)) {
+            return Optional.of(Collections.emptySet());
+        }
+        return Optional.of(members.getOrDefault(getPath(key), Collections.emptySet()));
+    }
+
+    /**
+     * Checks if the context of the key exists, throwing an exception if it exists but is not an object.
+     */
+    private boolean hasContextObject(Key key) throws ConfigurationException {
+        if (key.isTopLevel()) {
+            return true;
+        }
+        String contextPath = getPath(key.getContext());
+        Integer container = containers.get(contextPath);
+        if (container != null && container == OBJECT) {
+            return true;
+        }
+        if (container != null || values.containsKey(contextPath)) {
+            throw new ConfigurationException(key.getOptionName() + " is not an object");
+        }
+        // the context is missing, but one of its ancestors might exist and not be an object
+        hasContextObject(key.getContext());
+        return false;
+    }
+
+    private static String getPath(Key key) {
+        return key == Key.ROOT ? "" : key.getPath(PATHS);
+    }
+
+    private static final class Frame {
+        private final String path;
+        private final boolean array;
+        private int size;
+        private Set<String> members;
+
+        private Frame(String path, boolean array) {
+            this.path = path;
+            this.array = array;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.peterbecker.configuration.storage;
+
+public class StreamingJsonStoreTest extends AbstractStoreTest {
+
+    @Override
+    protected String getExtension() {
+        return "json";
+    }
+
+    @Override
+    protected StoreFactory getStoreFactory() {
+        return StreamingJsonStore::new;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.github.peterbecker.configuration;
+
+/**
+ * The way the configuration interfaces are implemented at runtime.
+ */
+public enum BindingMode {
+    /**
+     * Uses a {@linkplain java.lang.reflect.Proxy} dispatching all calls through an invocation handler.
+     * <p/>
+     * This works on every JVM and for every interface, but each call goes through the reflective dispatch.
+     */
+    PROXY,
+
+    /**
+     * Generates a class at runtime that implements the interface with one final field per option.
+     * <p/>
+     * Accessors are plain field reads, which allows the JIT to inline them. This requires Java 9 or later, on older
+     * JVMs the {@linkplain #PROXY} mode is used instead.
+     */
+    GENERATED_CLASS,
+
+    /**
+     * Uses the binder generated at compile time by the annotation processor in <code>configuration-processor</code>.
+     * <p/>
+     * This avoids inspecting the interface through reflection during loading. The resulting objects are instances of
+     * classes generated at compile time. If no binder has been generated for the interface, the
+     * {@linkplain #PROXY} mode is used instead.
+     */
+    COMPILED,
+
+    /**
+     * Uses a {@linkplain java.lang.reflect.Proxy} that parses each option when it is first accessed.
+     * <p/>
+     * Loading only checks that the interface is valid and that parsers for all value types are available. Values are
+     * read from the store on first access and memoized, so the store has to stay usable for the lifetime of the
+     * configuration object. Problems with the values are only detected on access, where they are reported as
+     * {@linkplain UncheckedConfigurationException}. Use {@linkplain Configuration#validateAll(Object)} to check all
+     * values at once.
+     */
+    LAZY
+}
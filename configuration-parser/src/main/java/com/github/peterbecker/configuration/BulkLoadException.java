@@ -0,0 +1,31 @@
+package com.github.peterbecker.configuration;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Reports all configurations that could not be loaded by a {@linkplain BulkLoader}.
+ * <p/>
+ * The individual failures are available by source, and are also attached as suppressed exceptions so that they show up
+ * in stack traces.
+ */
+public class BulkLoadException extends ConfigurationException {
+    private final Map<String, Exception> failures;
+
+    BulkLoadException(Map<String, Exception> failures, int total) {
+        super(failures.size() + " of " + total + " configurations could not be loaded, first failure in "
+                + failures.keySet().iterator().next() + ": " + failures.values().iterator().next().getMessage());
+        this.failures = Collections.unmodifiableMap(failures);
+        for (Exception failure : failures.values()) {
+            addSuppressed(failure);
+        }
+    }
+
+    /**
+     * The failures by source, in the order the sources were given. Sources are named by their path, stores by their
+     * position in the list.
+     */
+    public Map<String, Exception> getFailures() {
+        return failures;
+    }
+}
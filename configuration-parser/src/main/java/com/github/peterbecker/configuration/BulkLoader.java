@@ -0,0 +1,147 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.Store;
+import com.github.peterbecker.configuration.storage.StoreFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Loads many configurations of the same interface concurrently.
+ * <p/>
+ * All loads share the settings of the builder: the schema of the interface, the value parsers (combined once, not per
+ * load), the binding mode and the interner. Each configuration is loaded as a separate task on the executor given to
+ * {@linkplain Configuration.BulkLoaderBuilder#done(java.util.concurrent.Executor)}, which can be any executor, e.g. a
+ * fixed thread pool or, on Java 21 and later, <code>Executors.newVirtualThreadPerTaskExecutor()</code>. Reading the
+ * files happens in the tasks as well.
+ * <p/>
+ * A loader is thread-safe and can be used any number of times. A metrics listener set on the builder is called
+ * concurrently. If any configuration fails to load, all others are still loaded and the failures are reported
+ * together in a {@linkplain BulkLoadException}.
+ * <p/>
+ * Instances are created through {@linkplain Configuration.BulkLoaderBuilder#done(java.util.concurrent.Executor)},
+ * starting with {@linkplain Configuration.StoreCollector#inBulk()}.
+ */
+public class BulkLoader<T> {
+    /**
+     * Loads one configuration from a source.
+     */
+    @FunctionalInterface
+    private interface SourceLoader<S, T> {
+        T load(S source) throws ConfigurationException;
+    }
+
+    private final ReloadingConfiguration.Loader<T> loader;
+    private final Executor executor;
+
+    BulkLoader(ReloadingConfiguration.Loader<T> loader, Executor executor) {
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads a configuration from each store, the result is in the order of the stores.
+     *
+     * @throws BulkLoadException if any of the configurations can not be loaded
+     */
+    public List<T> loadAll(List<? extends Store> stores) throws ConfigurationException {
+        List<String> names = new ArrayList<>(stores.size());
+        for (int i = 0; i < stores.size(); i++) {
+            names.add("store " + i);
+        }
+        return loadAll(stores, names, loader::load);
+    }
+
+    /**
+     * Loads a configuration from each file, the result is in the order of the files.
+     *
+     * @throws BulkLoadException if any of the configurations can not be loaded
+     */
+    public Map<Path, T> loadFiles(Collection<Path> files, StoreFactory storeFactory) throws ConfigurationException {
+        List<Path> sources = new ArrayList<>(files);
+        List<String> names = new ArrayList<>(sources.size());
+        for (Path file : sources) {
+            names.add(file.toString());
+        }
+        List<T> results = loadAll(sources, names, file -> {
+            Store store;
+            try {
+                store = storeFactory.getStore(file);
+            } catch (IOException e) {
+                throw new ConfigurationException("Can not read file " + file, e);
+            }
+            return loader.load(store);
+        });
+        Map<Path, T> result = new LinkedHashMap<>((int) (sources.size() / 0.75f) + 1);
+        for (int i = 0; i < sources.size(); i++) {
+            result.put(sources.get(i), results.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Loads a configuration from each file in the directory whose name matches the glob pattern, e.g.
+     * <code>*.properties</code>. Subdirectories are not searched, the result is ordered by file name.
+     *
+     * @throws BulkLoadException if any of the configurations can not be loaded
+     */
+    public Map<Path, T> loadDirectory(Path directory, String glob, StoreFactory storeFactory)
+            throws ConfigurationException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Can not list directory " + directory, e);
+        }
+        Collections.sort(files);
+        return loadFiles(files, storeFactory);
+    }
+
+    private <S> List<T> loadAll(List<? extends S> sources, List<String> names, SourceLoader<S, T> sourceLoader)
+            throws ConfigurationException {
+        List<FutureTask<T>> tasks = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            FutureTask<T> task = new FutureTask<>(() -> sourceLoader.load(source));
+            tasks.add(task);
+            executor.execute(task);
+        }
+        List<T> results = new ArrayList<>(sources.size());
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                results.add(tasks.get(i).get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                failures.put(names.get(i), (Exception) e.getCause());
+                results.add(null);
+            } catch (InterruptedException e) {
+                for (FutureTask<T> task : tasks) {
+                    task.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new ConfigurationException("Interrupted while loading configurations", e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BulkLoadException(failures, sources.size());
+        }
+        return results;
+    }
+}
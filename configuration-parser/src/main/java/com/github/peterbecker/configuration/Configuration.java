@@ -1,16 +1,28 @@
 package com.github.peterbecker.configuration;
 
+import com.github.peterbecker.configuration.parser.Binder;
+import com.github.peterbecker.configuration.parser.BindingSupport;
+import com.github.peterbecker.configuration.parser.ConfigurationCache;
+import com.github.peterbecker.configuration.parser.ConfigurationSchema;
 import com.github.peterbecker.configuration.parser.InterfaceParser;
+import com.github.peterbecker.configuration.parser.InterningValueParser;
+import com.github.peterbecker.configuration.parser.OptionAccessCounts;
+import com.github.peterbecker.configuration.parser.TimedValueParser;
+import com.github.peterbecker.configuration.parser.ValueInterner;
 import com.github.peterbecker.configuration.storage.PropertiesStore;
 import com.github.peterbecker.configuration.storage.Store;
+import com.github.peterbecker.configuration.storage.StoreFactory;
 
 import java.io.IOException;
-import java.lang.reflect.Proxy;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -21,6 +33,16 @@ public class Configuration {
         return new StoreCollector<>(configurationInterface);
     }
 
+    /**
+     * Parses all values of a configuration loaded with {@linkplain BindingMode#LAZY}, so that problems are detected
+     * right away instead of on first access. Configurations loaded in other modes have been validated already.
+     *
+     * @throws ConfigurationException if any value, including nested ones, can not be loaded
+     */
+    public static void validateAll(Object configuration) throws ConfigurationException {
+        InterfaceParser.validateAll(configuration);
+    }
+
     public static class StoreCollector<T> {
         private final Class<T> configurationInterface;
 
@@ -51,18 +73,46 @@ public class Configuration {
         }
 
         public ConfigurationBuilder<T> fromStore(Store store) {
-            return new ConfigurationBuilder<>(configurationInterface, store);
+            return new ConfigurationBuilder<>(configurationInterface, store, null, null);
+        }
+
+        /**
+         * Loads the configuration from a file, which allows watching it for changes and caching it. The file is read
+         * when the configuration is loaded.
+         *
+         * @param storeFactory creates the store for the file, e.g. <code>PropertiesStore::new</code>
+         */
+        public ConfigurationBuilder<T> fromFile(Path file, StoreFactory storeFactory) {
+            return new ConfigurationBuilder<>(configurationInterface, null, file, storeFactory);
+        }
+
+        /**
+         * Creates a builder for a {@linkplain BulkLoader}, which loads many configurations of the interface from
+         * stores or files given later.
+         */
+        public BulkLoaderBuilder<T> inBulk() {
+            return new BulkLoaderBuilder<>(configurationInterface);
         }
     }
 
     public static class ConfigurationBuilder<T> {
         private final Class<T> configurationInterface;
         private final Store store;
+        private final Path source;
+        private final StoreFactory storeFactory;
         private final Map<Class<?>, Function<String, ?>> additionalValueParsers = new HashMap<>();
+        private BindingMode bindingMode = BindingMode.PROXY;
+        private Duration reloadDelay = Duration.ofMillis(500);
+        private ConfigurationMetricsListener metricsListener;
+        private ValueInterner interner;
+        private Path cacheFile;
 
-        private ConfigurationBuilder(Class<T> configurationInterface, Store store) {
+        private ConfigurationBuilder(Class<T> configurationInterface, Store store, Path source,
+                                     StoreFactory storeFactory) {
             this.configurationInterface = configurationInterface;
             this.store = store;
+            this.source = source;
+            this.storeFactory = storeFactory;
         }
 
         public <V> ConfigurationBuilder<T> withValueParser(Class<V> valueType, Function<String, V> parser) {
@@ -70,12 +120,276 @@ public class Configuration {
             return this;
         }
 
-        @SuppressWarnings("unchecked")
+        /**
+         * Selects how the configuration interfaces are implemented, the default is {@linkplain BindingMode#PROXY}.
+         */
+        public ConfigurationBuilder<T> withBindingMode(BindingMode bindingMode) {
+            this.bindingMode = bindingMode;
+            return this;
+        }
+
+        /**
+         * Sets how long the file has to be unchanged before it is reloaded, the default is half a second.
+         */
+        public ConfigurationBuilder<T> withReloadDelay(Duration reloadDelay) {
+            this.reloadDelay = reloadDelay;
+            return this;
+        }
+
+        /**
+         * Reports load times, store lookups, value parsing and option calls to the listener given, see
+         * {@linkplain ConfigurationMetricsListener}. Without a listener nothing is measured.
+         * <p/>
+         * Calls to options can only be counted for configurations implemented as proxies, i.e. in the binding modes
+         * {@linkplain BindingMode#PROXY} and {@linkplain BindingMode#LAZY}.
+         */
+        public ConfigurationBuilder<T> withMetrics(ConfigurationMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Passes all parsed values through the interner given, so that equal values of immutable types share a single
+         * object, see {@linkplain ValueInterner}. The same interner can be used for several configurations, and it is
+         * used for all reloads of a watched configuration.
+         */
+        public ConfigurationBuilder<T> withInterning(ValueInterner interner) {
+            this.interner = interner;
+            return this;
+        }
+
+        /**
+         * Keeps the parsed configuration in the cache file given. If neither the configuration file nor the interface
+         * changed since the cache was written, the configuration is restored from the cache instead of parsing the
+         * file, see {@linkplain ConfigurationCache} for the details and limitations.
+         * <p/>
+         * Only available if the builder was created with {@linkplain StoreCollector#fromFile(Path, StoreFactory)}.
+         */
+        public ConfigurationBuilder<T> withCache(Path cacheFile) {
+            if (source == null) {
+                throw new IllegalStateException("Only configurations loaded with fromFile(...) can be cached");
+            }
+            this.cacheFile = cacheFile;
+            return this;
+        }
+
         public T done() throws ConfigurationException {
-            return (T) Proxy.newProxyInstance(
-                    configurationInterface.getClassLoader(),
-                    new Class[]{configurationInterface},
-                    InterfaceParser.parse(configurationInterface, store, additionalValueParsers)
+            if (cacheFile != null) {
+                return loadCached();
+            }
+            return bind(configurationInterface, getStore(), getValueParsers(), bindingMode, metricsListener);
+        }
+
+        private Map<Class<?>, Function<String, ?>> getValueParsers() {
+            return getValueParsers(additionalValueParsers, interner);
+        }
+
+        private static Map<Class<?>, Function<String, ?>> getValueParsers(
+                Map<Class<?>, Function<String, ?>> additionalValueParsers, ValueInterner interner) {
+            if (interner == null) {
+                return new HashMap<>(additionalValueParsers);
+            }
+            return InterningValueParser.wrapAll(additionalValueParsers, interner);
+        }
+
+        private Store getStore() throws ConfigurationException {
+            if (store != null) {
+                return store;
+            }
+            try {
+                return storeFactory.getStore(source);
+            } catch (IOException e) {
+                throw new ConfigurationException("Can not read file " + source.toString(), e);
+            }
+        }
+
+        private T loadCached() throws ConfigurationException {
+            String fingerprint;
+            try {
+                fingerprint = ConfigurationCache.fingerprint(configurationInterface, source,
+                        additionalValueParsers.keySet());
+            } catch (IOException e) {
+                throw new ConfigurationException("Can not read file " + source.toString(), e);
+            }
+            Optional<T> cached = ConfigurationCache.read(cacheFile, fingerprint, configurationInterface, bindingMode);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            T result = bind(configurationInterface, getStore(), getValueParsers(), bindingMode, metricsListener);
+            try {
+                // the file may have been rewritten since it was fingerprinted, its values must not be cached for the
+                // content read before
+                if (fingerprint.equals(ConfigurationCache.fingerprint(configurationInterface, source,
+                        additionalValueParsers.keySet()))) {
+                    ConfigurationCache.write(cacheFile, fingerprint, configurationInterface, result, bindingMode);
+                }
+            } catch (IOException e) {
+                // the configuration is loaded, failing to cache it only costs time on the next start
+            }
+            return result;
+        }
+
+        /**
+         * Loads the configuration and keeps reloading it whenever the file changes.
+         * <p/>
+         * Only available if the builder was created with {@linkplain StoreCollector#fromFile(Path, StoreFactory)}.
+         */
+        public ReloadingConfiguration<T> watch() throws ConfigurationException {
+            if (source == null) {
+                throw new IllegalStateException("Only configurations loaded with fromFile(...) can be watched");
+            }
+            Class<T> configurationInterface = this.configurationInterface;
+            BindingMode bindingMode = this.bindingMode;
+            ConfigurationMetricsListener metricsListener = this.metricsListener;
+            ReloadingConfiguration.Loader<T> loader;
+            if (metricsListener == null) {
+                Map<Class<?>, Function<String, ?>> additionalValueParsers = getValueParsers();
+                loader = s -> bind(configurationInterface, s, additionalValueParsers, bindingMode);
+            } else {
+                Map<Class<?>, Function<String, ?>> timedValueParsers =
+                        TimedValueParser.wrapAll(getValueParsers(), metricsListener);
+                loader = s -> bindInstrumented(configurationInterface, s, timedValueParsers, bindingMode,
+                        metricsListener);
+            }
+            return new ReloadingConfiguration<>(
+                    configurationInterface,
+                    source,
+                    storeFactory,
+                    loader,
+                    metricsListener,
+                    reloadDelay,
+                    this::done
+            );
+        }
+
+        private static <T> T bind(Class<T> configurationInterface, Store store,
+                                  Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                  BindingMode bindingMode,
+                                  ConfigurationMetricsListener metricsListener) throws ConfigurationException {
+            if (metricsListener == null) {
+                return bind(configurationInterface, store, additionalValueParsers, bindingMode);
+            }
+            return bindMeasured(configurationInterface, store,
+                    TimedValueParser.wrapAll(additionalValueParsers, metricsListener), bindingMode, metricsListener);
+        }
+
+        private static <T> T bindMeasured(Class<T> configurationInterface, Store store,
+                                          Map<Class<?>, Function<String, ?>> timedValueParsers,
+                                          BindingMode bindingMode,
+                                          ConfigurationMetricsListener metricsListener) throws ConfigurationException {
+            long start = System.nanoTime();
+            T result = bindInstrumented(configurationInterface, store, timedValueParsers, bindingMode, metricsListener);
+            long duration = System.nanoTime() - start;
+            metricsListener.configurationLoaded(configurationInterface, duration, OptionAccessCounts.track(result));
+            return result;
+        }
+
+        /**
+         * Binds with store lookups and value parsing measured, but does not report the configuration as loaded.
+         */
+        private static <T> T bindInstrumented(Class<T> configurationInterface, Store store,
+                                              Map<Class<?>, Function<String, ?>> timedValueParsers,
+                                              BindingMode bindingMode,
+                                              ConfigurationMetricsListener metricsListener)
+                throws ConfigurationException {
+            return bind(configurationInterface, new InstrumentedStore(store, metricsListener), timedValueParsers,
+                    bindingMode);
+        }
+
+        private static <T> T bind(Class<T> configurationInterface, Store store,
+                                  Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                  BindingMode bindingMode) throws ConfigurationException {
+            if (bindingMode == BindingMode.LAZY) {
+                return InterfaceParser.newLazyInstance(configurationInterface, store, additionalValueParsers);
+            }
+            if (bindingMode == BindingMode.COMPILED) {
+                Optional<Binder<T>> binder = BindingSupport.findBinder(configurationInterface);
+                if (binder.isPresent()) {
+                    return binder.get().bind(store, additionalValueParsers);
+                }
+            }
+            return InterfaceParser.newInstance(
+                    configurationInterface,
+                    InterfaceParser.parse(configurationInterface, store, additionalValueParsers, bindingMode),
+                    bindingMode
+            );
+        }
+    }
+
+    /**
+     * Collects the settings shared by all configurations loaded with a {@linkplain BulkLoader}.
+     */
+    public static class BulkLoaderBuilder<T> {
+        private final Class<T> configurationInterface;
+        private final Map<Class<?>, Function<String, ?>> additionalValueParsers = new HashMap<>();
+        private BindingMode bindingMode = BindingMode.PROXY;
+        private ConfigurationMetricsListener metricsListener;
+        private ValueInterner interner;
+
+        private BulkLoaderBuilder(Class<T> configurationInterface) {
+            this.configurationInterface = configurationInterface;
+        }
+
+        public <V> BulkLoaderBuilder<T> withValueParser(Class<V> valueType, Function<String, V> parser) {
+            additionalValueParsers.put(valueType, parser);
+            return this;
+        }
+
+        /**
+         * Selects how the configuration interfaces are implemented, the default is {@linkplain BindingMode#PROXY}.
+         */
+        public BulkLoaderBuilder<T> withBindingMode(BindingMode bindingMode) {
+            this.bindingMode = bindingMode;
+            return this;
+        }
+
+        /**
+         * Reports measurements for each configuration loaded to the listener given, see
+         * {@linkplain ConfigurationBuilder#withMetrics(ConfigurationMetricsListener)}. The listener is called
+         * concurrently, from the threads of the executor.
+         */
+        public BulkLoaderBuilder<T> withMetrics(ConfigurationMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Passes all parsed values through the interner given, see
+         * {@linkplain ConfigurationBuilder#withInterning(ValueInterner)}.
+         */
+        public BulkLoaderBuilder<T> withInterning(ValueInterner interner) {
+            this.interner = interner;
+            return this;
+        }
+
+        /**
+         * Creates the loader, which runs each load as a task on the executor given. Loading includes reading the
+         * files, so the executor should allow for blocking tasks, e.g. a fixed thread pool or, on Java 21 and later,
+         * <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+         * <p/>
+         * The interface is checked right away, the value parsers are combined (and wrapped for metrics) once and
+         * shared by all loads.
+         */
+        public BulkLoader<T> done(Executor executor) throws ConfigurationException {
+            Class<T> configurationInterface = this.configurationInterface;
+            ConfigurationSchema.of(configurationInterface);
+            BindingMode bindingMode = this.bindingMode;
+            ConfigurationMetricsListener metricsListener = this.metricsListener;
+            Map<Class<?>, Function<String, ?>> valueParsers =
+                    ConfigurationBuilder.getValueParsers(additionalValueParsers, interner);
+            if (metricsListener == null) {
+                Map<Class<?>, Function<String, ?>> sharedValueParsers = Collections.unmodifiableMap(valueParsers);
+                return new BulkLoader<>(
+                        s -> ConfigurationBuilder.bind(configurationInterface, s, sharedValueParsers, bindingMode),
+                        executor
+                );
+            }
+            Map<Class<?>, Function<String, ?>> timedValueParsers =
+                    Collections.unmodifiableMap(TimedValueParser.wrapAll(valueParsers, metricsListener));
+            return new BulkLoader<>(
+                    s -> ConfigurationBuilder.bindMeasured(configurationInterface, s, timedValueParsers, bindingMode,
+                            metricsListener),
+                    executor
             );
         }
     }
@@ -0,0 +1,16 @@
+package com.github.peterbecker.configuration;
+
+import java.util.Set;
+
+/**
+ * Receives changes of a {@linkplain ReloadingConfiguration}.
+ */
+@FunctionalInterface
+public interface ConfigurationListener<T> {
+    /**
+     * Called after a new configuration has been loaded in which an observed option changed.
+     *
+     * @param changedOptions the paths of all options that changed, not just the ones observed
+     */
+    void configurationChanged(T oldConfiguration, T newConfiguration, Set<String> changedOptions);
+}
@@ -0,0 +1,48 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.OptionAccessCounts;
+import com.github.peterbecker.configuration.storage.Store;
+
+/**
+ * Receives measurements taken while loading configurations, see
+ * {@linkplain Configuration.ConfigurationBuilder#withMetrics(ConfigurationMetricsListener)}.
+ * <p/>
+ * All methods do nothing by default, so implementations only need to override what they are interested in. Methods
+ * are called on the thread doing the work and should return quickly.
+ */
+public interface ConfigurationMetricsListener {
+    /**
+     * The kinds of requests made to a store.
+     */
+    enum StoreOperation {
+        GET_VALUE,
+        GET_VALUES,
+        GET_LIST_SIZE,
+        GET_MAP_KEYS
+    }
+
+    /**
+     * Called after a configuration object has been created.
+     *
+     * @param accessCounts the number of calls to each option, updated as the configuration is used
+     */
+    default void configurationLoaded(Class<?> configurationInterface, long durationNanos,
+                                     OptionAccessCounts accessCounts) {
+    }
+
+    /**
+     * Called after each request to the store.
+     *
+     * @param keys  the number of keys requested
+     * @param found the number of keys for which the store had a value
+     */
+    default void storeLookup(Class<? extends Store> storeType, StoreOperation operation, int keys, int found,
+                             long durationNanos) {
+    }
+
+    /**
+     * Called after a value parser has been run.
+     */
+    default void valueParsed(Class<?> valueType, long durationNanos) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.ConfigurationMetricsListener.StoreOperation;
+import com.github.peterbecker.configuration.storage.Key;
+import com.github.peterbecker.configuration.storage.Store;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Reports the requests to a store to a metrics listener.
+ */
+class InstrumentedStore implements Store {
+    private final Store delegate;
+    private final ConfigurationMetricsListener listener;
+
+    InstrumentedStore(Store delegate, ConfigurationMetricsListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public Optional<String> getValue(Key key) throws ConfigurationException {
+        long start = System.nanoTime();
+        Optional<String> value = delegate.getValue(key);
+        listener.storeLookup(delegate.getClass(), StoreOperation.GET_VALUE, 1, value.isPresent() ? 1 : 0,
+                System.nanoTime() - start);
+        return value;
+    }
+
+    @Override
+    public Map<Key, String> getValues(Collection<Key> keys) throws ConfigurationException {
+        long start = System.nanoTime();
+        Map<Key, String> values = delegate.getValues(keys);
+        listener.storeLookup(delegate.getClass(), StoreOperation.GET_VALUES, keys.size(), values.size(),
+                System.nanoTime() - start);
+        return values;
+    }
+
+    @Override
+    public OptionalInt getListSize(Key key) throws ConfigurationException {
+        long start = System.nanoTime();
+        OptionalInt size = delegate.getListSize(key);
+        listener.storeLookup(delegate.getClass(), StoreOperation.GET_LIST_SIZE, 1, size.isPresent() ? 1 : 0,
+                System.nanoTime() - start);
+        return size;
+    }
+
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) throws ConfigurationException {
+        long start = System.nanoTime();
+        Optional<Set<String>> mapKeys = delegate.getMapKeys(key);
+        listener.storeLookup(delegate.getClass(), StoreOperation.GET_MAP_KEYS, 1, mapKeys.isPresent() ? 1 : 0,
+                System.nanoTime() - start);
+        return mapKeys;
+    }
+}
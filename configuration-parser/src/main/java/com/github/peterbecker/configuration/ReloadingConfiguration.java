@@ -0,0 +1,276 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+import com.github.peterbecker.configuration.parser.ConfigurationDiff;
+import com.github.peterbecker.configuration.parser.ConfigurationMerger;
+import com.github.peterbecker.configuration.parser.OptionAccessCounts;
+import com.github.peterbecker.configuration.storage.Store;
+import com.github.peterbecker.configuration.storage.StoreFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A configuration that is loaded again whenever its file changes.
+ * <p/>
+ * The file is watched by a background thread. After a change the thread waits until the file has not been changed
+ * for the reload delay, then loads the file and replaces the current configuration object. Readers always get a
+ * complete configuration object, either the old or the new one, and never block. If loading fails the previous
+ * configuration stays in place and the failure is available through {@linkplain #getLastFailure()}. If the directory
+ * of the file can not be watched any longer, e.g. because it was deleted, the watching stops and this is reported the
+ * same way.
+ * <p/>
+ * Listeners can be registered for individual options. After a reload the new configuration is compared with the old
+ * one and only the listeners for options that changed are called, on the thread that loaded the configuration.
+ * Nested objects that did not change are taken over from the previous configuration, see
+ * {@linkplain ConfigurationMerger}. With a metrics listener, option calls are counted on the merged configuration.
+ * <p/>
+ * Instances are created through {@linkplain Configuration.ConfigurationBuilder#watch()}.
+ */
+public class ReloadingConfiguration<T> implements AutoCloseable {
+    /**
+     * Binds a configuration object to a store, using the settings of the builder.
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load(Store store) throws ConfigurationException;
+    }
+
+    /**
+     * Loads the initial configuration, using the settings of the builder.
+     */
+    @FunctionalInterface
+    interface InitialLoader<T> {
+        T load() throws ConfigurationException;
+    }
+
+    private final Class<T> configurationInterface;
+    private final Path source;
+    private final StoreFactory storeFactory;
+    private final Loader<T> loader;
+    private final ConfigurationMetricsListener metricsListener;
+    private final long reloadDelayMillis;
+    private final WatchService watchService;
+    private final List<Registration<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile T current;
+    private volatile ConfigurationException lastFailure;
+
+    /**
+     * @param loader          binds the configuration, without reporting it to the metrics listener
+     * @param metricsListener is told about each reload after merging, null if there is none
+     * @param initialLoader   called once the file is watched, so that no change after loading it can be missed
+     */
+    ReloadingConfiguration(Class<T> configurationInterface, Path source, StoreFactory storeFactory, Loader<T> loader,
+                           ConfigurationMetricsListener metricsListener, Duration reloadDelay,
+                           InitialLoader<T> initialLoader) throws ConfigurationException {
+        this.configurationInterface = configurationInterface;
+        this.source = source.toAbsolutePath();
+        this.storeFactory = storeFactory;
+        this.loader = loader;
+        this.metricsListener = metricsListener;
+        this.reloadDelayMillis = reloadDelay.toMillis();
+        try {
+            this.watchService = this.source.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            throw new ConfigurationException("Can not watch file " + source, e);
+        }
+        try {
+            this.source.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            this.current = initialLoader.load();
+        } catch (IOException e) {
+            closeWatchService();
+            throw new ConfigurationException("Can not watch file " + source, e);
+        } catch (ConfigurationException | RuntimeException e) {
+            closeWatchService();
+            throw e;
+        }
+        Thread watcher = new Thread(this::watch, "configuration-watcher-" + source.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Returns the most recently loaded configuration.
+     */
+    public T get() {
+        return current;
+    }
+
+    /**
+     * Loads the file now, independent of any changes detected.
+     *
+     * @throws ConfigurationException if the file can not be loaded, in which case the previous configuration is kept.
+     *                                Runtime exceptions from value parsers are wrapped.
+     */
+    public synchronized void reload() throws ConfigurationException {
+        try (EventScope event = FlightRecorderEvents.beginReload(configurationInterface, source)) {
+            T previous = current;
+            T updated = load(previous);
+            // compared before the new configuration goes live, lazy values that can not be parsed fail the reload
+            Set<String> changes = updated == previous || listeners.isEmpty()
+                    ? Collections.emptySet()
+                    : ConfigurationDiff.changedOptions(configurationInterface, previous, updated);
+            current = updated;
+            lastFailure = null;
+            notifyListeners(previous, updated, changes);
+        } catch (ConfigurationException e) {
+            lastFailure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the file and merges it with the previous configuration, all failures are reported as
+     * {@linkplain ConfigurationException}.
+     */
+    private T load(T previous) throws ConfigurationException {
+        long start = System.nanoTime();
+        try {
+            Store store;
+            try {
+                store = storeFactory.getStore(source);
+            } catch (IOException e) {
+                throw new ConfigurationException("Can not read file " + source, e);
+            }
+            T merged = ConfigurationMerger.reuseUnchanged(configurationInterface, previous, loader.load(store));
+            if (metricsListener != null) {
+                // counted after merging, since merged objects and reused ones are not those that were loaded
+                metricsListener.configurationLoaded(configurationInterface, System.nanoTime() - start,
+                        OptionAccessCounts.track(merged));
+            }
+            return merged;
+        } catch (UncheckedConfigurationException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            throw new ConfigurationException("Can not load file " + source, e);
+        }
+    }
+
+    /**
+     * Registers a listener for changes to an option.
+     *
+     * @param optionPath the option names separated by dots, e.g. <code>database.timeout</code>. For nested interfaces
+     *                   the listener is called if any option within changes, the empty string refers to the whole
+     *                   configuration.
+     * @throws IllegalArgumentException if there is no option with the path given
+     */
+    public void addListener(String optionPath, ConfigurationListener<? super T> listener)
+            throws ConfigurationException {
+        ConfigurationDiff.checkOptionPath(configurationInterface, optionPath);
+        listeners.add(new Registration<>(optionPath, listener));
+    }
+
+    /**
+     * Removes all registrations of the listener.
+     */
+    public void removeListener(ConfigurationListener<? super T> listener) {
+        listeners.removeIf(registration -> registration.listener == listener);
+    }
+
+    private void notifyListeners(T previous, T updated, Set<String> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (Registration<T> registration : listeners) {
+            if (ConfigurationDiff.isAffected(registration.optionPath, changes)) {
+                try {
+                    registration.listener.configurationChanged(previous, updated, changes);
+                } catch (RuntimeException e) {
+                    // a failing listener should not stop the others or the reloading
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The problem with the last attempt to load the file, empty if it succeeded.
+     */
+    public Optional<ConfigurationException> getLastFailure() {
+        return Optional.ofNullable(lastFailure);
+    }
+
+    /**
+     * Stops watching the file. The last configuration loaded stays available.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void closeWatchService() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // nothing is watched any longer either way
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                boolean changed = isSourceChanged(watchService.take());
+                if (!changed) {
+                    continue;
+                }
+                // wait for the writes to settle before loading
+                WatchKey next;
+                while ((next = watchService.poll(reloadDelayMillis, TimeUnit.MILLISECONDS)) != null) {
+                    isSourceChanged(next);
+                }
+                try {
+                    reload();
+                } catch (ConfigurationException e) {
+                    // kept in lastFailure, the previous configuration stays active
+                } catch (RuntimeException e) {
+                    // not expected, but the watcher has to keep running so that the next change is picked up
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed, stop watching
+        }
+    }
+
+    private static final class Registration<T> {
+        private final String optionPath;
+        private final ConfigurationListener<? super T> listener;
+
+        private Registration(String optionPath, ConfigurationListener<? super T> listener) {
+            this.optionPath = optionPath;
+            this.listener = listener;
+        }
+    }
+
+    private boolean isSourceChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || source.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        if (!key.reset()) {
+            // the directory is gone or not accessible, later changes can not be detected
+            lastFailure = new ConfigurationException("Can not watch file " + source + " any longer");
+            closeWatchService();
+        }
+        return changed;
+    }
+}
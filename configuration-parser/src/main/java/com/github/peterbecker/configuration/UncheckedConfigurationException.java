@@ -0,0 +1,16 @@
+package com.github.peterbecker.configuration;
+
+/**
+ * Wraps a {@linkplain ConfigurationException} where checked exceptions can not be thrown, e.g. when a value of a lazily
+ * bound configuration turns out to be invalid on access.
+ */
+public class UncheckedConfigurationException extends RuntimeException {
+    public UncheckedConfigurationException(ConfigurationException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public ConfigurationException getCause() {
+        return (ConfigurationException) super.getCause();
+    }
+}
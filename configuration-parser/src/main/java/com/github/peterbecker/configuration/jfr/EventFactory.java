@@ -0,0 +1,16 @@
+package com.github.peterbecker.configuration.jfr;
+
+import com.github.peterbecker.configuration.storage.Key;
+
+/**
+ * Creates the events, only implemented if the JVM provides Flight Recorder.
+ */
+interface EventFactory {
+    EventScope beginInterfaceParse(Class<?> configurationInterface, Key context);
+
+    EventScope beginStoreParse(Class<?> storeType, Object source);
+
+    EventScope beginReload(Class<?> configurationInterface, Object source);
+
+    void valueParseFailed(Class<?> valueType, String optionName, String message);
+}
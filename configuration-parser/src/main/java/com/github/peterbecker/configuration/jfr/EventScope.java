@@ -0,0 +1,9 @@
+package com.github.peterbecker.configuration.jfr;
+
+/**
+ * An event in progress, which is committed when closed.
+ */
+public interface EventScope extends AutoCloseable {
+    @Override
+    void close();
+}
@@ -0,0 +1,70 @@
+package com.github.peterbecker.configuration.jfr;
+
+import com.github.peterbecker.configuration.storage.Key;
+
+/**
+ * Emits Java Flight Recorder events for loading configurations.
+ * <p/>
+ * The events are named <code>com.github.peterbecker.configuration.*</code> and listed in the category "Configuration":
+ * <ul>
+ * <li>InterfaceParse: parsing the options of one configuration interface, including nested ones</li>
+ * <li>StoreParse: reading a file into a store</li>
+ * <li>Reload: reloading a watched configuration</li>
+ * <li>ValueParseFailure: a value that could not be parsed</li>
+ * </ul>
+ * If the JVM does not provide Flight Recorder (Java 8 before update 262) nothing is emitted. When no recording is
+ * active the events are not populated, so the overhead is a single check per event.
+ */
+public final class FlightRecorderEvents {
+    private static final EventScope NONE = () -> {
+    };
+    private static final EventFactory FACTORY = createFactory();
+
+    private FlightRecorderEvents() {
+        // static methods only
+    }
+
+    private static EventFactory createFactory() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return new JfrEventFactory();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts the event for parsing a configuration interface.
+     *
+     * @param context the key of the nested option, null for the top level interface
+     */
+    public static EventScope beginInterfaceParse(Class<?> configurationInterface, Key context) {
+        return FACTORY == null ? NONE : FACTORY.beginInterfaceParse(configurationInterface, context);
+    }
+
+    /**
+     * Starts the event for reading the source of a store.
+     */
+    public static EventScope beginStoreParse(Class<?> storeType, Object source) {
+        return FACTORY == null ? NONE : FACTORY.beginStoreParse(storeType, source);
+    }
+
+    /**
+     * Starts the event for reloading a configuration.
+     */
+    public static EventScope beginReload(Class<?> configurationInterface, Object source) {
+        return FACTORY == null ? NONE : FACTORY.beginReload(configurationInterface, source);
+    }
+
+    /**
+     * Emits the event for a value that could not be parsed. The value itself is not recorded, since it might be
+     * confidential, and neither are exception messages, which often contain the value.
+     *
+     * @param message the exception class or a fixed description of the failure
+     */
+    public static void valueParseFailed(Class<?> valueType, String optionName, String message) {
+        if (FACTORY != null) {
+            FACTORY.valueParseFailed(valueType, optionName, message);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.peterbecker.configuration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.github.peterbecker.configuration.InterfaceParse")
+@Label("Configuration Interface Parse")
+@Category("Configuration")
+@Description("Parsing the options of a configuration interface from a store, including nested interfaces.")
+class InterfaceParseEvent extends Event implements EventScope {
+    @Label("Configuration Interface")
+    Class<?> configurationInterface;
+
+    @Label("Context")
+    String context;
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.peterbecker.configuration.jfr;
+
+import com.github.peterbecker.configuration.storage.Key;
+
+/**
+ * Creates the Flight Recorder events, only loaded if <code>jdk.jfr</code> is available.
+ */
+class JfrEventFactory implements EventFactory {
+    private static final EventScope NONE = () -> {
+    };
+    /**
+     * Renders the context of nested interfaces as the option names and list indexes separated by dots.
+     */
+    private static final Key.PathFormat CONTEXT_PATHS = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            String path = contextPath.isEmpty() ? key.getOptionName() : contextPath + "." + key.getOptionName();
+            return key.isIndexed() ? path + "." + key.getIndex() : path;
+        }
+    };
+
+    @Override
+    public EventScope beginInterfaceParse(Class<?> configurationInterface, Key context) {
+        InterfaceParseEvent event = new InterfaceParseEvent();
+        if (!event.isEnabled()) {
+            return NONE;
+        }
+        event.configurationInterface = configurationInterface;
+        event.context = context == Key.ROOT ? "" : context.getPath(CONTEXT_PATHS);
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public EventScope beginStoreParse(Class<?> storeType, Object source) {
+        StoreParseEvent event = new StoreParseEvent();
+        if (!event.isEnabled()) {
+            return NONE;
+        }
+        event.storeType = storeType;
+        event.source = String.valueOf(source);
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public EventScope beginReload(Class<?> configurationInterface, Object source) {
+        ReloadEvent event = new ReloadEvent();
+        if (!event.isEnabled()) {
+            return NONE;
+        }
+        event.configurationInterface = configurationInterface;
+        event.source = String.valueOf(source);
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void valueParseFailed(Class<?> valueType, String optionName, String message) {
+        ValueParseFailureEvent event = new ValueParseFailureEvent();
+        if (event.isEnabled()) {
+            event.valueType = valueType;
+            event.optionName = optionName;
+            event.message = message;
+            event.commit();
+        }
+    }
+}
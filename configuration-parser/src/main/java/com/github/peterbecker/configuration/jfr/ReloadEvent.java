@@ -0,0 +1,24 @@
+package com.github.peterbecker.configuration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.github.peterbecker.configuration.Reload")
+@Label("Configuration Reload")
+@Category("Configuration")
+@Description("Reloading a watched configuration file.")
+class ReloadEvent extends Event implements EventScope {
+    @Label("Configuration Interface")
+    Class<?> configurationInterface;
+
+    @Label("Source")
+    String source;
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.peterbecker.configuration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.github.peterbecker.configuration.StoreParse")
+@Label("Configuration Store Parse")
+@Category("Configuration")
+@Description("Reading a configuration file into a store.")
+class StoreParseEvent extends Event implements EventScope {
+    @Label("Store Type")
+    Class<?> storeType;
+
+    @Label("Source")
+    String source;
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
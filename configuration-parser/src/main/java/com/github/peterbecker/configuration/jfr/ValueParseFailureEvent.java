@@ -0,0 +1,23 @@
+package com.github.peterbecker.configuration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.github.peterbecker.configuration.ValueParseFailure")
+@Label("Configuration Value Parse Failure")
+@Category("Configuration")
+@Description("A configuration value that could not be parsed.")
+class ValueParseFailureEvent extends Event {
+    @Label("Value Type")
+    Class<?> valueType;
+
+    @Label("Option")
+    String optionName;
+
+    @Label("Message")
+    @Description("The kind of failure, without the value.")
+    String message;
+}
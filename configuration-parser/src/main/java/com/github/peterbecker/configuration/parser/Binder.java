@@ -0,0 +1,17 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.storage.Store;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates configuration objects from a store without inspecting the configuration interface at runtime.
+ * <p/>
+ * Implementations are generated at compile time by the annotation processor in the <code>configuration-processor</code>
+ * module, one for each interface annotated with {@linkplain com.github.peterbecker.configuration.v1.Configuration}.
+ */
+public interface Binder<T> {
+    T bind(Store store, Map<Class<?>, Function<String, ?>> additionalValueParsers) throws ConfigurationException;
+}
@@ -0,0 +1,234 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+import com.github.peterbecker.configuration.storage.Key;
+import com.github.peterbecker.configuration.storage.Store;
+import com.github.peterbecker.configuration.v1.IndexedList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Runtime support for the binders generated by the annotation processor.
+ * <p/>
+ * The generated code knows the structure of the configuration interface, this class provides the value parsing so
+ * that generated binders behave the same way as the {@linkplain InterfaceParser}.
+ */
+public final class BindingSupport {
+    /**
+     * The suffix added to the name of a configuration interface to get the name of its generated binder.
+     */
+    public static final String BINDER_SUFFIX = "Binder";
+
+    private static final ClassValue<Optional<Binder<?>>> BINDERS = new ClassValue<Optional<Binder<?>>>() {
+        @Override
+        protected Optional<Binder<?>> computeValue(Class<?> type) {
+            try {
+                Class<?> binderClass = Class.forName(getBinderClassName(type), true, type.getClassLoader());
+                return Optional.of((Binder<?>) binderClass.getConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private static final Map<Class<?>, Function<String, ?>> DEFAULT_VALUE_PARSERS =
+            Collections.unmodifiableMap(InterfaceParser.DEFAULT_VALUE_PARSERS);
+
+    private BindingSupport() {
+        // static methods only
+    }
+
+    /**
+     * Binds nested configuration interfaces, implemented through generated methods.
+     */
+    @FunctionalInterface
+    public interface NestedBinder<T> {
+        T bind(Store store, Map<Class<?>, Function<String, ?>> valueParsers, Key context) throws ConfigurationException;
+    }
+
+    /**
+     * Finds the binder generated for the interface given, if there is one.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<Binder<T>> findBinder(Class<T> configurationInterface) {
+        return (Optional<Binder<T>>) (Optional<?>) BINDERS.get(configurationInterface);
+    }
+
+    /**
+     * The name of the binder class: the interface name with nesting replaced by underscores, plus a suffix.
+     */
+    public static String getBinderClassName(Class<?> configurationInterface) {
+        String name = configurationInterface.getName();
+        int packageEnd = name.lastIndexOf('.');
+        return name.substring(0, packageEnd + 1) + name.substring(packageEnd + 1).replace('$', '_') + BINDER_SUFFIX;
+    }
+
+    /**
+     * Combines the default value parsers with additional ones, where the latter take precedence.
+     */
+    public static Map<Class<?>, Function<String, ?>> valueParsers(
+            Map<Class<?>, Function<String, ?>> additionalValueParsers) {
+        if (additionalValueParsers.isEmpty()) {
+            return DEFAULT_VALUE_PARSERS;
+        }
+        Map<Class<?>, Function<String, ?>> valueParsers = new HashMap<>();
+        valueParsers.putAll(InterfaceParser.DEFAULT_VALUE_PARSERS);
+        valueParsers.putAll(additionalValueParsers);
+        return valueParsers;
+    }
+
+    /**
+     * Retrieves a mandatory value.
+     *
+     * @param defaultValue the value to use if the store has none, null if there is no default
+     */
+    public static <V> V value(Store store, Key key, Class<V> type, String defaultValue,
+                              Map<Class<?>, Function<String, ?>> valueParsers) throws ConfigurationException {
+        Optional<String> value = store.getValue(key);
+        if (!value.isPresent() && defaultValue == null) {
+            throw new ConfigurationException("No value provided for mandatory option " + key.getOptionName());
+        }
+        return parse(value.orElse(defaultValue), type, key, valueParsers);
+    }
+
+    public static <V> Optional<V> optionalValue(Store store, Key key, Class<V> type,
+                                                Map<Class<?>, Function<String, ?>> valueParsers) throws ConfigurationException {
+        Optional<String> value = store.getValue(key);
+        if (!value.isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(parse(value.get(), type, key, valueParsers));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> List<V> list(Store store, Key context, String optionName, Class<V> type,
+                                   Map<Class<?>, Function<String, ?>> valueParsers) throws ConfigurationException {
+        OptionalInt size = store.getListSize(Key.of(context, optionName, -1));
+        List<String> values = new ArrayList<>(size.orElse(10));
+        for (int i = 0; !size.isPresent() || i < size.getAsInt(); i++) {
+            Optional<String> value = store.getValue(Key.of(context, optionName, i));
+            if (!value.isPresent()) {
+                if (size.isPresent()) {
+                    throw new ConfigurationException("Missing element " + i + " in list option " + optionName);
+                }
+                break;
+            }
+            values.add(value.get());
+        }
+        if (PrimitiveLists.isSupported(type)
+                && InterfaceParser.usesDefaultParser(type, valueParsers)) {
+            return (List<V>) PrimitiveLists.parse(type, optionName, values);
+        }
+        List<V> result = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            result.add(parse(values.get(i), type, Key.of(context, optionName, i), valueParsers));
+        }
+        return InterfaceParser.immutableList(result);
+    }
+
+    public static <V> List<V> nestedList(Store store, Key context, String optionName,
+                                         Map<Class<?>, Function<String, ?>> valueParsers,
+                                         NestedBinder<V> binder) throws ConfigurationException {
+        OptionalInt size = store.getListSize(Key.of(context, optionName, -1));
+        if (size.isPresent()) {
+            List<V> result = new ArrayList<>(size.getAsInt());
+            for (int i = 0; i < size.getAsInt(); i++) {
+                result.add(binder.bind(store, valueParsers, Key.of(context, optionName, i)));
+            }
+            return InterfaceParser.immutableList(result);
+        }
+        List<V> result = new ArrayList<>();
+        for (int i = 0; ; i++) {
+            try {
+                result.add(binder.bind(store, valueParsers, Key.of(context, optionName, i)));
+            } catch (ConfigurationException e) { // same termination as in InterfaceParser
+                return InterfaceParser.immutableList(result);
+            }
+        }
+    }
+
+    /**
+     * Builds the indexes of a list of nested interfaces, for options declared as {@linkplain IndexedList} or with
+     * {@linkplain com.github.peterbecker.configuration.v1.Option#indexedBy()}.
+     *
+     * @param optionNames the options of the nested interface the list is indexed by
+     * @param accessors   the methods of these options, in the same order
+     */
+    @SafeVarargs
+    public static <V> IndexedList<V> indexed(List<V> elements, String[] optionNames,
+                                             Function<? super V, ?>... accessors) {
+        return IndexedElementList.of(elements, Arrays.asList(optionNames), Arrays.asList(accessors));
+    }
+
+    public static <V> Map<String, V> map(Store store, Key context, String optionName, Class<V> type,
+                                         Map<Class<?>, Function<String, ?>> valueParsers) throws ConfigurationException {
+        Key mapKey = Key.of(context, optionName, -1);
+        Set<String> entries = InterfaceParser.getMapKeys(store, mapKey);
+        List<Key> keys = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            keys.add(Key.entry(mapKey, entry));
+        }
+        Map<Key, String> values = keys.isEmpty() ? Collections.emptyMap() : store.getValues(keys);
+        Map<String, V> result = InterfaceParser.newMap(entries.size());
+        for (Key key : keys) {
+            String value = values.get(key);
+            if (value == null) {
+                throw new ConfigurationException(
+                        "Missing value for entry " + key.getOptionName() + " in map option " + optionName);
+            }
+            result.put(key.getOptionName(), parse(value, type, key, valueParsers));
+        }
+        return InterfaceParser.immutableMap(result);
+    }
+
+    public static <V> Map<String, V> nestedMap(Store store, Key context, String optionName,
+                                               Map<Class<?>, Function<String, ?>> valueParsers,
+                                               NestedBinder<V> binder) throws ConfigurationException {
+        Key mapKey = Key.of(context, optionName, -1);
+        Set<String> entries = InterfaceParser.getMapKeys(store, mapKey);
+        Map<String, V> result = InterfaceParser.newMap(entries.size());
+        for (String entry : entries) {
+            result.put(entry, binder.bind(store, valueParsers, Key.entry(mapKey, entry)));
+        }
+        return InterfaceParser.immutableMap(result);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> V parse(String value, Class<V> type, Key key,
+                               Map<Class<?>, Function<String, ?>> valueParsers) throws ConfigurationException {
+        Function<String, V> valueParser = (Function<String, V>) valueParsers.get(type);
+        if (valueParser != null) {
+            try {
+                return valueParser.apply(value);
+            } catch (RuntimeException e) {
+                FlightRecorderEvents.valueParseFailed(type, key.getOptionName(), e.getClass().getName());
+                throw e;
+            }
+        }
+        if (type.isEnum()) {
+            try {
+                return (V) Enum.valueOf((Class) type, value);
+            } catch (IllegalArgumentException e) {
+                FlightRecorderEvents.valueParseFailed(type, key.getOptionName(), "No enum constant");
+                throw new ConfigurationException("Can not find value " + value + " for enum " + type.getCanonicalName());
+            }
+        }
+        throw new ConfigurationException(
+                String.format(
+                        "Can not parse type %s used in option %s",
+                        type.getName(),
+                        key.getOptionName()
+                )
+        );
+    }
+}
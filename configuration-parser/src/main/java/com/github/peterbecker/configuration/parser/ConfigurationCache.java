@@ -0,0 +1,384 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.BindingMode;
+import com.github.peterbecker.configuration.ConfigurationException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the parsed values of a configuration in a file, so that an unchanged configuration file does not have to be
+ * parsed again on the next start.
+ * <p/>
+ * The cache file holds a fingerprint of the configuration file content and of the configuration interface, including
+ * nested interfaces, option types and default values, and the types with additional value parsers. If the fingerprint
+ * matches, the configuration object is restored from the values in the cache without creating a store or running any
+ * value parsers. Custom value parsers themselves can not be fingerprinted, the cache has to be deleted if one changes
+ * its results.
+ * <p/>
+ * Values are stored using Java serialization, so all value types have to be serializable. This is the case for all
+ * types supported by default. Only classes of the types supported by default and the value types of the interface
+ * are accepted when reading the cache. Configurations with other values are not cached, as are configurations bound
+ * with {@linkplain BindingMode#LAZY} or {@linkplain BindingMode#COMPILED}.
+ * <p/>
+ * Any problem with the cache file is treated like a mismatch, i.e. the configuration is parsed normally.
+ */
+public final class ConfigurationCache {
+    private static final String FORMAT = "configuration-cache-1";
+    /**
+     * The classes of values supported by default, apart from <code>java.time</code>, which serializes through its own
+     * proxy classes.
+     */
+    private static final Set<String> DEFAULT_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Number", "java.lang.Integer", "java.lang.Long", "java.lang.Short",
+            "java.lang.Byte", "java.lang.Float", "java.lang.Double", "java.lang.Boolean", "java.lang.Character",
+            "java.lang.Enum", "java.math.BigInteger", "java.math.BigDecimal",
+            "[Ljava.lang.Object;", "[[Ljava.lang.Object;", "[I", "[J", "[D"
+    ));
+
+    private ConfigurationCache() {
+        // static methods only
+    }
+
+    /**
+     * Computes the fingerprint of the configuration file and the interface.
+     *
+     * @param customValueTypes the types with additional value parsers
+     */
+    public static String fingerprint(Class<?> configurationInterface, Path source,
+                                     Collection<Class<?>> customValueTypes) throws ConfigurationException, IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported", e);
+        }
+        StringBuilder schema = new StringBuilder(FORMAT).append('\n');
+        describe(ConfigurationSchema.of(configurationInterface), schema, new HashSet<>());
+        Set<String> customTypeNames = new TreeSet<>();
+        for (Class<?> type : customValueTypes) {
+            customTypeNames.add(type.getName());
+        }
+        schema.append(customTypeNames).append('\n');
+        digest.update(schema.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(source)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static void describe(ConfigurationSchema<?> schema, StringBuilder description, Set<Class<?>> visited)
+            throws ConfigurationException {
+        description.append(schema.getConfigurationInterface().getName()).append('{');
+        if (visited.add(schema.getConfigurationInterface())) {
+            for (OptionSchema option : schema.getOptions()) {
+                description.append(option.getName()).append(':').append(option.getKind()).append(':')
+                        .append(option.getValueType().getName());
+                if (option.getDefaultValue().isPresent()) {
+                    description.append('=').append(option.getDefaultValue().get());
+                }
+                if (option.isNested()) {
+                    describe(ConfigurationSchema.of(option.getValueType()), description, visited);
+                }
+                description.append(';');
+            }
+        }
+        description.append('}');
+    }
+
+    /**
+     * Restores the configuration from the cache file if it exists and has the fingerprint given.
+     */
+    public static <T> Optional<T> read(Path cacheFile, String fingerprint, Class<T> configurationInterface,
+                                       BindingMode bindingMode) {
+        if (!isSupported(bindingMode)) {
+            return Optional.empty();
+        }
+        try (ObjectInputStream in = new RestrictedObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile)), configurationInterface)) {
+            if (!FORMAT.equals(in.readUTF()) || !fingerprint.equals(in.readUTF())) {
+                return Optional.empty();
+            }
+            Object[] values = (Object[]) in.readObject();
+            return Optional.of(configurationInterface.cast(
+                    restore(ConfigurationSchema.of(configurationInterface), values, bindingMode)));
+        } catch (IOException | ClassNotFoundException | ConfigurationException | RuntimeException e) {
+            // missing, unreadable or from an incompatible version, parse again
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the values of the configuration to the cache file, replacing it atomically.
+     *
+     * @return false if the configuration can not be cached, in which case no file is written
+     */
+    public static boolean write(Path cacheFile, String fingerprint, Class<?> configurationInterface,
+                                Object configuration, BindingMode bindingMode) throws IOException {
+        if (!isSupported(bindingMode)) {
+            return false;
+        }
+        Object[] values;
+        try {
+            values = capture(ConfigurationSchema.of(configurationInterface), configuration);
+        } catch (ConfigurationException e) {
+            return false;
+        }
+        if (values == null) {
+            return false;
+        }
+        Path absoluteTarget = cacheFile.toAbsolutePath();
+        Files.createDirectories(absoluteTarget.getParent());
+        Path temporary = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString(), ".tmp");
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeUTF(FORMAT);
+                out.writeUTF(fingerprint);
+                out.writeObject(values);
+            }
+            Files.move(temporary, absoluteTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static boolean isSupported(BindingMode bindingMode) {
+        return bindingMode == BindingMode.PROXY || bindingMode == BindingMode.GENERATED_CLASS;
+    }
+
+    /**
+     * Converts the configuration object into nested arrays of serializable values, null if a value is not serializable.
+     * <p/>
+     * Optional values are stored as their content or null, lists of nested interfaces and other lists as arrays,
+     * {@linkplain PrimitiveLists} as their primitive arrays, and maps as arrays alternating between keys and values.
+     */
+    private static Object[] capture(ConfigurationSchema<?> schema, Object configuration) throws ConfigurationException {
+        Object[] values = ConfigurationDiff.getValues(schema, configuration);
+        Object[] result = new Object[values.length];
+        for (OptionSchema option : schema.getOptions()) {
+            Object value = values[option.getSlot()];
+            Object captured;
+            switch (option.getKind()) {
+                case VALUE:
+                    captured = value;
+                    break;
+                case OPTIONAL:
+                    captured = ((Optional<?>) value).orElse(null);
+                    break;
+                case LIST:
+                    if (value instanceof PrimitiveLists.IntList) {
+                        captured = ((PrimitiveLists.IntList) value).toIntArray();
+                    } else if (value instanceof PrimitiveLists.LongList) {
+                        captured = ((PrimitiveLists.LongList) value).toLongArray();
+                    } else if (value instanceof PrimitiveLists.DoubleList) {
+                        captured = ((PrimitiveLists.DoubleList) value).toDoubleArray();
+                    } else {
+                        captured = ((List<?>) value).toArray();
+                        for (Object element : (Object[]) captured) {
+                            if (!isSerializable(element)) {
+                                return null;
+                            }
+                        }
+                    }
+                    break;
+                case NESTED:
+                    captured = capture(ConfigurationSchema.of(option.getValueType()), value);
+                    if (captured == null) {
+                        return null;
+                    }
+                    break;
+                case NESTED_LIST: {
+                    ConfigurationSchema<?> elementSchema = ConfigurationSchema.of(option.getValueType());
+                    List<?> elements = (List<?>) value;
+                    Object[][] capturedElements = new Object[elements.size()][];
+                    for (int i = 0; i < capturedElements.length; i++) {
+                        capturedElements[i] = capture(elementSchema, elements.get(i));
+                        if (capturedElements[i] == null) {
+                            return null;
+                        }
+                    }
+                    captured = capturedElements;
+                    break;
+                }
+                case MAP: {
+                    Object[] entries = new Object[2 * ((Map<?, ?>) value).size()];
+                    int i = 0;
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        if (!isSerializable(entry.getValue())) {
+                            return null;
+                        }
+                        entries[i++] = entry.getKey();
+                        entries[i++] = entry.getValue();
+                    }
+                    captured = entries;
+                    break;
+                }
+                case NESTED_MAP: {
+                    ConfigurationSchema<?> elementSchema = ConfigurationSchema.of(option.getValueType());
+                    Object[] entries = new Object[2 * ((Map<?, ?>) value).size()];
+                    int i = 0;
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        Object[] element = capture(elementSchema, entry.getValue());
+                        if (element == null) {
+                            return null;
+                        }
+                        entries[i++] = entry.getKey();
+                        entries[i++] = element;
+                    }
+                    captured = entries;
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown option kind " + option.getKind());
+            }
+            if (option.getKind() != OptionSchema.Kind.LIST && option.getKind() != OptionSchema.Kind.MAP
+                    && !isSerializable(captured)) {
+                return null;
+            }
+            result[option.getSlot()] = captured;
+        }
+        return result;
+    }
+
+    private static boolean isSerializable(Object value) {
+        return value == null || value instanceof Serializable;
+    }
+
+    private static Object restore(ConfigurationSchema<?> schema, Object[] captured, BindingMode bindingMode)
+            throws ConfigurationException {
+        if (captured.length != schema.size()) {
+            throw new ConfigurationException("Cached values do not match " + schema.getConfigurationInterface().getName());
+        }
+        Object[] values = new Object[captured.length];
+        for (OptionSchema option : schema.getOptions()) {
+            Object value = captured[option.getSlot()];
+            switch (option.getKind()) {
+                case VALUE:
+                    values[option.getSlot()] = value;
+                    break;
+                case OPTIONAL:
+                    values[option.getSlot()] = Optional.ofNullable(value);
+                    break;
+                case LIST:
+                    if (value instanceof int[]) {
+                        values[option.getSlot()] = new PrimitiveLists.IntList((int[]) value);
+                    } else if (value instanceof long[]) {
+                        values[option.getSlot()] = new PrimitiveLists.LongList((long[]) value);
+                    } else if (value instanceof double[]) {
+                        values[option.getSlot()] = new PrimitiveLists.DoubleList((double[]) value);
+                    } else {
+                        values[option.getSlot()] = InterfaceParser.immutableList(Arrays.asList((Object[]) value));
+                    }
+                    break;
+                case NESTED:
+                    values[option.getSlot()] =
+                            restore(ConfigurationSchema.of(option.getValueType()), (Object[]) value, bindingMode);
+                    break;
+                case NESTED_LIST: {
+                    ConfigurationSchema<?> elementSchema = ConfigurationSchema.of(option.getValueType());
+                    Object[][] elements = (Object[][]) value;
+                    List<Object> restored = new ArrayList<>(elements.length);
+                    for (Object[] element : elements) {
+                        restored.add(restore(elementSchema, element, bindingMode));
+                    }
+                    values[option.getSlot()] = IndexedElementList.of(option, restored);
+                    break;
+                }
+                case MAP:
+                case NESTED_MAP: {
+                    ConfigurationSchema<?> elementSchema = option.getKind() == OptionSchema.Kind.NESTED_MAP
+                            ? ConfigurationSchema.of(option.getValueType()) : null;
+                    Object[] entries = (Object[]) value;
+                    Map<String, Object> restored = InterfaceParser.newMap(entries.length / 2);
+                    for (int i = 0; i < entries.length; i += 2) {
+                        Object element = entries[i + 1];
+                        restored.put((String) entries[i], elementSchema == null
+                                ? element : restore(elementSchema, (Object[]) element, bindingMode));
+                    }
+                    values[option.getSlot()] = InterfaceParser.immutableMap(restored);
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown option kind " + option.getKind());
+            }
+        }
+        return newInstance(schema.getConfigurationInterface(), values, bindingMode);
+    }
+
+    private static <T> T newInstance(Class<T> configurationInterface, Object[] values, BindingMode bindingMode) {
+        return InterfaceParser.newInstance(configurationInterface,
+                new ConfigurationInvocationHandler<>(configurationInterface, values), bindingMode);
+    }
+
+    /**
+     * Only resolves the classes that can appear in the values of the configuration interface.
+     */
+    private static final class RestrictedObjectInputStream extends ObjectInputStream {
+        private final Set<String> valueTypes = new HashSet<>();
+
+        private RestrictedObjectInputStream(InputStream in, Class<?> configurationInterface)
+                throws IOException, ConfigurationException {
+            super(in);
+            collectValueTypes(ConfigurationSchema.of(configurationInterface), new HashSet<>());
+        }
+
+        private void collectValueTypes(ConfigurationSchema<?> schema, Set<Class<?>> visited)
+                throws ConfigurationException {
+            if (!visited.add(schema.getConfigurationInterface())) {
+                return;
+            }
+            for (OptionSchema option : schema.getOptions()) {
+                if (option.isNested()) {
+                    collectValueTypes(ConfigurationSchema.of(option.getValueType()), visited);
+                } else {
+                    valueTypes.add(option.getValueType().getName());
+                }
+            }
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+            String name = descriptor.getName();
+            if (!isAllowed(name)) {
+                throw new InvalidClassException(name, "Unexpected class in configuration cache");
+            }
+            return super.resolveClass(descriptor);
+        }
+
+        private boolean isAllowed(String name) {
+            return valueTypes.contains(name) || DEFAULT_CLASSES.contains(name) || name.startsWith("java.time.");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compares two configuration objects of the same interface, option by option.
+ * <p/>
+ * Options are identified by their path, which is the option names separated by dots, e.g. <code>nested.value</code>.
+ * Nested interfaces are compared option by option, lists and maps of nested interfaces are reported as a whole if any
+ * element differs. Values are compared with {@linkplain Object#equals(Object)}.
+ * <p/>
+ * Configurations bound with {@linkplain com.github.peterbecker.configuration.BindingMode#LAZY} are parsed completely
+ * for the comparison, values that can not be parsed are reported as {@linkplain ConfigurationException}.
+ */
+public final class ConfigurationDiff {
+    private ConfigurationDiff() {
+        // static methods only
+    }
+
+    /**
+     * Returns the paths of all options with different values, sorted.
+     */
+    public static <T> Set<String> changedOptions(Class<T> configurationInterface, T oldConfiguration,
+                                                 T newConfiguration) throws ConfigurationException {
+        Set<String> changes = new TreeSet<>();
+        diff(ConfigurationSchema.of(configurationInterface), oldConfiguration, newConfiguration, "", changes);
+        return changes;
+    }
+
+    /**
+     * Checks if a change to the option at the path given is included in the changes.
+     *
+     * @param optionPath the path of an option, or the empty string for the whole configuration
+     */
+    public static boolean isAffected(String optionPath, Set<String> changes) {
+        if (optionPath.isEmpty()) {
+            return !changes.isEmpty();
+        }
+        for (String change : changes) {
+            if (change.equals(optionPath) || change.startsWith(optionPath + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks that the path refers to an option of the interface.
+     *
+     * @throws IllegalArgumentException if there is no such option
+     */
+    public static void checkOptionPath(Class<?> configurationInterface, String optionPath)
+            throws ConfigurationException {
+        if (optionPath.isEmpty()) {
+            return;
+        }
+        ConfigurationSchema<?> schema = ConfigurationSchema.of(configurationInterface);
+        String[] names = optionPath.split("\\.", -1);
+        for (int i = 0; i < names.length; i++) {
+            OptionSchema option = findOption(schema, names[i]);
+            if (option == null || (i < names.length - 1 && option.getKind() != OptionSchema.Kind.NESTED)) {
+                throw new IllegalArgumentException(
+                        "No option " + optionPath + " in " + configurationInterface.getName());
+            }
+            if (option.getKind() == OptionSchema.Kind.NESTED) {
+                schema = ConfigurationSchema.of(option.getValueType());
+            }
+        }
+    }
+
+    private static OptionSchema findOption(ConfigurationSchema<?> schema, String name) {
+        for (OptionSchema option : schema.getOptions()) {
+            if (option.getName().equals(name)) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    private static void diff(ConfigurationSchema<?> schema, Object oldConfiguration, Object newConfiguration,
+                             String prefix, Set<String> changes) throws ConfigurationException {
+        if (oldConfiguration == newConfiguration) {
+            return;
+        }
+        Object[] oldValues = getValues(schema, oldConfiguration);
+        Object[] newValues = getValues(schema, newConfiguration);
+        for (OptionSchema option : schema.getOptions()) {
+            String path = prefix + option.getName();
+            Object oldValue = oldValues[option.getSlot()];
+            Object newValue = newValues[option.getSlot()];
+            switch (option.getKind()) {
+                case NESTED:
+                    diff(ConfigurationSchema.of(option.getValueType()), oldValue, newValue, path + ".", changes);
+                    break;
+                case NESTED_LIST:
+                    if (!isSameList(ConfigurationSchema.of(option.getValueType()), (List<?>) oldValue,
+                            (List<?>) newValue)) {
+                        changes.add(path);
+                    }
+                    break;
+                case NESTED_MAP:
+                    if (!isSameMap(ConfigurationSchema.of(option.getValueType()), (Map<?, ?>) oldValue,
+                            (Map<?, ?>) newValue)) {
+                        changes.add(path);
+                    }
+                    break;
+                default:
+                    if (!Objects.equals(oldValue, newValue)) {
+                        changes.add(path);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static boolean isSameList(ConfigurationSchema<?> elementSchema, List<?> oldList, List<?> newList)
+            throws ConfigurationException {
+        if (oldList.size() != newList.size()) {
+            return false;
+        }
+        Set<String> elementChanges = new TreeSet<>();
+        for (int i = 0; i < oldList.size() && elementChanges.isEmpty(); i++) {
+            diff(elementSchema, oldList.get(i), newList.get(i), "", elementChanges);
+        }
+        return elementChanges.isEmpty();
+    }
+
+    private static boolean isSameMap(ConfigurationSchema<?> elementSchema, Map<?, ?> oldMap, Map<?, ?> newMap)
+            throws ConfigurationException {
+        if (!oldMap.keySet().equals(newMap.keySet())) {
+            return false;
+        }
+        Set<String> elementChanges = new TreeSet<>();
+        for (Map.Entry<?, ?> entry : oldMap.entrySet()) {
+            diff(elementSchema, entry.getValue(), newMap.get(entry.getKey()), "", elementChanges);
+            if (!elementChanges.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the option values of a configuration object by slot.
+     */
+    static Object[] getValues(ConfigurationSchema<?> schema, Object configuration) throws ConfigurationException {
+        if (Proxy.isProxyClass(configuration.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(configuration);
+            if (handler instanceof ConfigurationInvocationHandler) {
+                return ((ConfigurationInvocationHandler<?>) handler).getValues();
+            }
+            if (handler instanceof LazyInvocationHandler) {
+                return ((LazyInvocationHandler<?>) handler).getValues();
+            }
+        }
+        // generated class or compiled binder
+        Object[] values = new Object[schema.size()];
+        for (OptionSchema option : schema.getOptions()) {
+            Method method = option.getMethod();
+            try {
+                method.setAccessible(true);
+                values[option.getSlot()] = method.invoke(configuration);
+            } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+                throw new IllegalStateException("Can not read option " + option.getName(), e);
+            }
+        }
+        return values;
+    }
+}
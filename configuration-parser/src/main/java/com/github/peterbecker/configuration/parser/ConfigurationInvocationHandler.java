@@ -1,40 +1,74 @@
 package com.github.peterbecker.configuration.parser;
 
-import lombok.RequiredArgsConstructor;
-
-import java.lang.invoke.MethodHandles;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Binds calls to the configuration interface to the data extracted.
+ * <p/>
+ * The values are stored in an array indexed by the slots of the interface, see {@linkplain MethodSlots}.
  */
-@RequiredArgsConstructor
 public class ConfigurationInvocationHandler<T> implements InvocationHandler {
+    private static final Object[] NO_ARGS = new Object[0];
+
     private final Class<T> configurationInterface;
-    private final Map<String, Object> data;
+    private final MethodSlots slots;
+    private final Object[] values;
+    /**
+     * The counters for calls to the options by slot, null unless {@linkplain OptionAccessCounts} are tracked.
+     */
+    private LongAdder[] accessCounters;
+
+    ConfigurationInvocationHandler(Class<T> configurationInterface, Object[] values) {
+        this.configurationInterface = configurationInterface;
+        this.slots = MethodSlots.of(configurationInterface);
+        this.values = values;
+        assert values.length == slots.size();
+    }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        assert configurationInterface.isAssignableFrom(proxy.getClass());
-        if(method.isDefault()) {
-            return invokeDefaultMethod(proxy, method, args);
+        int dispatch = slots.getDispatch(method);
+        if (dispatch >= 0) {
+            LongAdder[] counters = accessCounters;
+            if (counters != null) {
+                counters[dispatch].increment();
+            }
+            return values[dispatch];
+        }
+        if (dispatch != Integer.MIN_VALUE) {
+            Object[] arguments = args == null ? NO_ARGS : args;
+            return (Object) slots.getDefaultMethod(dispatch).invokeExact(proxy, arguments);
+        }
+        return invokeObjectMethod(configurationInterface, proxy, method, args);
+    }
+
+    /**
+     * Implements the methods of {@linkplain Object} with identity semantics.
+     */
+    static Object invokeObjectMethod(Class<?> configurationInterface, Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return configurationInterface.getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                throw new UnsupportedOperationException("Unexpected method " + method);
         }
-        assert args == null;
-        return data.get(method.getName());
     }
 
-    // heavily inspired by https://stackoverflow.com/a/49532463/19820
-    private Object invokeDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable {
-        Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class
-                .getDeclaredConstructor(Class.class);
-        constructor.setAccessible(true);
-        return constructor.newInstance(method.getDeclaringClass())
-                .in(method.getDeclaringClass())
-                .unreflectSpecial(method, method.getDeclaringClass())
-                .bindTo(proxy)
-                .invokeWithArguments(args);
+    Object[] getValues() {
+        return values;
+    }
+
+    Class<T> getConfigurationInterface() {
+        return configurationInterface;
+    }
+
+    void setAccessCounters(LongAdder[] accessCounters) {
+        this.accessCounters = accessCounters;
     }
 }
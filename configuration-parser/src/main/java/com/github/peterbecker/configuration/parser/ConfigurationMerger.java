@@ -0,0 +1,145 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.BindingMode;
+import com.github.peterbecker.configuration.ConfigurationException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Combines a newly loaded configuration with the previous one, so that unchanged parts keep their identity.
+ * <p/>
+ * Every nested object (including list elements and map values) whose options all have equal values is replaced by the
+ * object from the previous configuration. If nothing changed at all, the previous configuration itself is returned.
+ * This way code that keeps references to parts of the configuration, or caches keyed by identity, only sees new objects
+ * where something actually changed.
+ * <p/>
+ * Objects created by compiled binders can not be recreated with different values, for these only complete subtrees
+ * are reused. Lazily bound objects are parsed completely for the comparison, and recreated as lazily bound objects.
+ */
+public final class ConfigurationMerger {
+    private ConfigurationMerger() {
+        // static methods only
+    }
+
+    /**
+     * Returns the configuration with the values of the updated one, sharing everything unchanged with the previous one.
+     */
+    public static <T> T reuseUnchanged(Class<T> configurationInterface, T previous, T updated)
+            throws ConfigurationException {
+        if (previous == null) {
+            return updated;
+        }
+        return configurationInterface.cast(merge(ConfigurationSchema.of(configurationInterface), previous, updated));
+    }
+
+    private static Object merge(ConfigurationSchema<?> schema, Object previous, Object updated)
+            throws ConfigurationException {
+        if (previous == updated) {
+            return previous;
+        }
+        Object[] previousValues = ConfigurationDiff.getValues(schema, previous);
+        Object[] updatedValues = ConfigurationDiff.getValues(schema, updated);
+        Object[] merged = updatedValues.clone();
+        boolean unchanged = true;
+        boolean reused = false;
+        for (OptionSchema option : schema.getOptions()) {
+            int slot = option.getSlot();
+            Object previousValue = previousValues[slot];
+            Object updatedValue = updatedValues[slot];
+            switch (option.getKind()) {
+                case NESTED:
+                    merged[slot] = merge(ConfigurationSchema.of(option.getValueType()), previousValue, updatedValue);
+                    reused |= merged[slot] != updatedValue;
+                    unchanged &= merged[slot] == previousValue;
+                    break;
+                case NESTED_LIST:
+                    merged[slot] = mergeList(option, (List<?>) previousValue, (List<?>) updatedValue);
+                    reused |= merged[slot] != updatedValue;
+                    unchanged &= merged[slot] == previousValue;
+                    break;
+                case NESTED_MAP:
+                    merged[slot] = mergeMap(ConfigurationSchema.of(option.getValueType()), (Map<?, ?>) previousValue,
+                            (Map<?, ?>) updatedValue);
+                    reused |= merged[slot] != updatedValue;
+                    unchanged &= merged[slot] == previousValue;
+                    break;
+                default:
+                    unchanged &= Objects.equals(previousValue, updatedValue);
+                    break;
+            }
+        }
+        if (unchanged) {
+            return previous;
+        }
+        if (!reused) {
+            return updated;
+        }
+        return recreate(schema.getConfigurationInterface(), updated, merged);
+    }
+
+    private static List<?> mergeList(OptionSchema option, List<?> previous, List<?> updated)
+            throws ConfigurationException {
+        ConfigurationSchema<?> elementSchema = ConfigurationSchema.of(option.getValueType());
+        List<Object> merged = new ArrayList<>(updated.size());
+        boolean unchanged = previous.size() == updated.size();
+        for (int i = 0; i < updated.size(); i++) {
+            Object element = updated.get(i);
+            if (i < previous.size()) {
+                element = merge(elementSchema, previous.get(i), element);
+                unchanged &= element == previous.get(i);
+            }
+            merged.add(element);
+        }
+        return unchanged ? previous : IndexedElementList.of(option, merged);
+    }
+
+    private static Map<?, ?> mergeMap(ConfigurationSchema<?> elementSchema, Map<?, ?> previous, Map<?, ?> updated)
+            throws ConfigurationException {
+        Map<String, Object> merged = InterfaceParser.newMap(updated.size());
+        boolean unchanged = previous.size() == updated.size();
+        boolean reused = false;
+        for (Map.Entry<?, ?> entry : updated.entrySet()) {
+            Object element = entry.getValue();
+            Object previousElement = previous.get(entry.getKey());
+            if (previousElement != null) {
+                element = merge(elementSchema, previousElement, element);
+                reused |= element != entry.getValue();
+                unchanged &= element == previousElement;
+            } else {
+                unchanged = false;
+            }
+            merged.put((String) entry.getKey(), element);
+        }
+        if (unchanged) {
+            return previous;
+        }
+        return reused ? InterfaceParser.immutableMap(merged) : updated;
+    }
+
+    /**
+     * Creates an object of the same kind as the updated one, with the values given.
+     */
+    private static <T> Object recreate(Class<T> configurationInterface, Object updated, Object[] values) {
+        if (Proxy.isProxyClass(updated.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(updated);
+            if (handler instanceof LazyInvocationHandler) {
+                return Proxy.newProxyInstance(configurationInterface.getClassLoader(),
+                        new Class[]{configurationInterface}, ((LazyInvocationHandler<?>) handler).withValues(values));
+            }
+            return InterfaceParser.newInstance(configurationInterface,
+                    new ConfigurationInvocationHandler<>(configurationInterface, values), BindingMode.PROXY);
+        }
+        if (!ImplementationGenerator.isImplementation(configurationInterface, updated.getClass())) {
+            // created by a compiled binder, which can not be given different values
+            return updated;
+        }
+        Optional<T> generated = ImplementationGenerator.newInstance(configurationInterface, values);
+        return generated.isPresent() ? generated.get() : updated;
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.v1.IndexedList;
+import com.github.peterbecker.configuration.v1.Option;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolved structure of a configuration interface.
+ * <p/>
+ * A schema is created once per interface and then reused for every load, so the reflective inspection of the
+ * interface happens only once. Nested interfaces have their own schemas, see
+ * {@linkplain OptionSchema#getValueType()}.
+ */
+public final class ConfigurationSchema<T> {
+    private static final ClassValue<ConfigurationSchema<?>> SCHEMAS = new ClassValue<ConfigurationSchema<?>>() {
+        @Override
+        protected ConfigurationSchema<?> computeValue(Class<?> type) {
+            return new ConfigurationSchema<>(type);
+        }
+    };
+
+    private final Class<T> configurationInterface;
+    private final MethodSlots slots;
+    private final List<OptionSchema> options;
+    /**
+     * The problem with the interface if it is not a valid configuration interface, null otherwise.
+     */
+    private final String validationError;
+
+    private ConfigurationSchema(Class<T> configurationInterface) {
+        this.configurationInterface = configurationInterface;
+        this.slots = MethodSlots.of(configurationInterface);
+        this.validationError = validate(configurationInterface);
+        List<OptionSchema> options = new ArrayList<>();
+        if (validationError == null) {
+            List<Method> methods = slots.getOptionMethods();
+            for (int slot = 0; slot < methods.size(); slot++) {
+                options.add(new OptionSchema(methods.get(slot), slot));
+            }
+        }
+        this.options = Collections.unmodifiableList(options);
+    }
+
+    /**
+     * Returns the schema for the interface given.
+     *
+     * @throws ConfigurationException if the interface can not be used for configuration
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ConfigurationSchema<T> of(Class<T> configurationInterface) throws ConfigurationException {
+        ConfigurationSchema<T> schema = (ConfigurationSchema<T>) SCHEMAS.get(configurationInterface);
+        if (schema.validationError != null) {
+            throw new ConfigurationException(schema.validationError);
+        }
+        return schema;
+    }
+
+    private static String validate(Class<?> configurationInterface) {
+        for (Method method : configurationInterface.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.getParameterCount() != 0) {
+                return String.format(
+                        "Method %s#%s has parameters, configuration interfaces should not have any",
+                        method.getDeclaringClass().getName(),
+                        method.getName()
+                );
+            }
+            if (method.getReturnType().equals(Map.class)
+                    && (!(method.getGenericReturnType() instanceof ParameterizedType)
+                    || !OptionSchema.getTypeArgument(method, 0).equals(String.class))) {
+                return String.format(
+                        "Method %s#%s returns a map without String keys, map options need to be Map<String, T>",
+                        method.getDeclaringClass().getName(),
+                        method.getName()
+                );
+            }
+            String indexError = validateIndexes(method);
+            if (indexError != null) {
+                return indexError;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks that indexes are only requested for lists of nested interfaces, on options with single values.
+     */
+    private static String validateIndexes(Method method) {
+        Option option = method.getAnnotation(Option.class);
+        String[] indexedBy = option == null ? new String[0] : option.indexedBy();
+        Class<?> returnType = method.getReturnType();
+        if (indexedBy.length == 0 && !returnType.equals(IndexedList.class)) {
+            return null;
+        }
+        if (!(returnType.equals(List.class) || returnType.equals(IndexedList.class))
+                || !(method.getGenericReturnType() instanceof ParameterizedType)
+                || !OptionSchema.getTypeArgument(method, 0).isInterface()) {
+            return String.format(
+                    "Method %s#%s is indexed, but does not return a list of nested interfaces",
+                    method.getDeclaringClass().getName(),
+                    method.getName()
+            );
+        }
+        Class<?> elementType = OptionSchema.getTypeArgument(method, 0);
+        for (String name : indexedBy) {
+            Method indexMethod;
+            try {
+                indexMethod = elementType.getMethod(name);
+            } catch (NoSuchMethodException e) {
+                indexMethod = null;
+            }
+            if (indexMethod == null || indexMethod.isDefault() || Modifier.isStatic(indexMethod.getModifiers())
+                    || indexMethod.getReturnType().isInterface()) {
+                return String.format(
+                        "Method %s#%s is indexed by %s, which is not a single value option of %s",
+                        method.getDeclaringClass().getName(),
+                        method.getName(),
+                        name,
+                        elementType.getName()
+                );
+            }
+        }
+        return null;
+    }
+
+    public Class<T> getConfigurationInterface() {
+        return configurationInterface;
+    }
+
+    /**
+     * The options of the interface, in slot order.
+     */
+    public List<OptionSchema> getOptions() {
+        return options;
+    }
+
+    public int size() {
+        return options.size();
+    }
+
+    MethodSlots getSlots() {
+        return slots;
+    }
+}
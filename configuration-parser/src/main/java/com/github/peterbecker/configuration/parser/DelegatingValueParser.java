@@ -0,0 +1,20 @@
+package com.github.peterbecker.configuration.parser;
+
+import java.util.function.Function;
+
+/**
+ * A value parser wrapping another one, e.g. to measure it or to post-process its results.
+ */
+interface DelegatingValueParser {
+    Function<String, ?> getDelegate();
+
+    /**
+     * Returns the innermost parser, i.e. the one doing the actual parsing.
+     */
+    static Function<String, ?> unwrap(Function<String, ?> parser) {
+        while (parser instanceof DelegatingValueParser) {
+            parser = ((DelegatingValueParser) parser).getDelegate();
+        }
+        return parser;
+    }
+}
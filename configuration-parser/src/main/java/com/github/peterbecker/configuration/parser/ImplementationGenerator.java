@@ -0,0 +1,307 @@
+package com.github.peterbecker.configuration.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generates classes implementing configuration interfaces with one final field per option.
+ * <p/>
+ * The generated classes have a single constructor taking the same value array as the
+ * {@linkplain ConfigurationInvocationHandler}, the accessors just return the field values. Default methods are
+ * inherited from the interface as usual.
+ * <p/>
+ * On Java 15 and later the classes are defined as hidden classes, on Java 9 to 14 as normal classes in the package of
+ * the interface. Java 8 does not offer a supported way to define classes into another package, in that case no
+ * implementation is provided and the caller is expected to fall back to a proxy.
+ */
+class ImplementationGenerator {
+    private static final String CLASS_NAME_SUFFIX = "$$ConfigurationImpl";
+
+    private static final MethodHandle DEFINE_HIDDEN_CLASS;
+    private static final MethodHandle DEFINE_CLASS;
+    private static final Object NO_CLASS_OPTIONS;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle defineHiddenClass = null;
+        MethodHandle defineClass = null;
+        Object noClassOptions = null;
+        try {
+            defineClass = lookup.findVirtual(MethodHandles.Lookup.class, "defineClass",
+                    MethodType.methodType(Class.class, byte[].class));
+            Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            noClassOptions = Array.newInstance(classOption, 0);
+            defineHiddenClass = lookup.findVirtual(MethodHandles.Lookup.class, "defineHiddenClass",
+                    MethodType.methodType(MethodHandles.Lookup.class, byte[].class, boolean.class, noClassOptions.getClass()))
+                    .asFixedArity();
+        } catch (NoSuchMethodException | IllegalAccessException | ClassNotFoundException e) {
+            // older JVM, we use whatever we found so far
+        }
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+        DEFINE_CLASS = defineClass;
+        NO_CLASS_OPTIONS = noClassOptions;
+    }
+
+    private static final ClassValue<Optional<MethodHandle>> CONSTRUCTORS = new ClassValue<Optional<MethodHandle>>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            return generate(type);
+        }
+    };
+
+    /**
+     * Creates a new instance of the generated implementation for the interface given.
+     *
+     * @return the new instance, or empty if the JVM or the interface do not allow generating an implementation
+     */
+    static <T> Optional<T> newInstance(Class<T> configurationInterface, Object[] values) {
+        Optional<MethodHandle> constructor = CONSTRUCTORS.get(configurationInterface);
+        if (!constructor.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(configurationInterface.cast(constructor.get().invoke(values)));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unexpected exception in generated constructor", t);
+        }
+    }
+
+    /**
+     * Checks if the class is the implementation generated for the interface, without generating one.
+     */
+    static boolean isImplementation(Class<?> configurationInterface, Class<?> type) {
+        // hidden classes get a suffix after a slash
+        String name = configurationInterface.getName() + CLASS_NAME_SUFFIX;
+        return type.getName().equals(name) || type.getName().startsWith(name + "/");
+    }
+
+    private static Optional<MethodHandle> generate(Class<?> configurationInterface) {
+        if (!Lookups.isModernJvm() || DEFINE_CLASS == null) {
+            return Optional.empty();
+        }
+        try {
+            MethodHandles.Lookup lookup = Lookups.privateLookupIn(configurationInterface);
+            byte[] classFile = createClassFile(configurationInterface);
+            Class<?> implementation;
+            if (DEFINE_HIDDEN_CLASS != null) {
+                MethodHandles.Lookup hiddenLookup = (MethodHandles.Lookup)
+                        DEFINE_HIDDEN_CLASS.invoke(lookup, classFile, true, NO_CLASS_OPTIONS);
+                implementation = hiddenLookup.lookupClass();
+                lookup = hiddenLookup;
+            } else {
+                implementation = (Class<?>) DEFINE_CLASS.invoke(lookup, classFile);
+            }
+            return Optional.of(
+                    lookup.findConstructor(implementation, MethodType.methodType(void.class, Object[].class))
+                            .asType(MethodType.methodType(Object.class, Object[].class))
+            );
+        } catch (IllegalAccessException | LinkageError e) {
+            // the interface is not accessible to us (e.g. in a module that is not open), use the fallback
+            return Optional.empty();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unexpected exception generating implementation", t);
+        }
+    }
+
+    private static byte[] createClassFile(Class<?> configurationInterface) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        String className = internalName(configurationInterface) + CLASS_NAME_SUFFIX;
+        List<Method> methods = MethodSlots.of(configurationInterface).getOptionMethods();
+
+        int thisClass = pool.classRef(className);
+        int superClass = pool.classRef("java/lang/Object");
+        int interfaceClass = pool.classRef(internalName(configurationInterface));
+        int code = pool.utf8("Code");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeShort(0x0031); // ACC_PUBLIC | ACC_FINAL | ACC_SUPER
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(interfaceClass);
+
+        out.writeShort(methods.size());
+        for (Method method : methods) {
+            out.writeShort(0x0012); // ACC_PRIVATE | ACC_FINAL
+            out.writeShort(pool.utf8(method.getName()));
+            out.writeShort(pool.utf8(descriptor(method.getReturnType())));
+            out.writeShort(0);
+        }
+
+        out.writeShort(methods.size() + 1);
+        writeMethod(out, pool, code, "<init>", "([Ljava/lang/Object;)V", 4, 2,
+                constructorCode(pool, className, methods));
+        for (Method method : methods) {
+            writeMethod(out, pool, code, method.getName(), "()" + descriptor(method.getReturnType()), 2, 1,
+                    accessorCode(pool, className, method));
+        }
+        out.writeShort(0);
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(result);
+        header.writeInt(0xCAFEBABE);
+        header.writeShort(0);
+        header.writeShort(52); // Java 8
+        pool.write(header);
+        header.write(body.toByteArray());
+        return result.toByteArray();
+    }
+
+    private static byte[] constructorCode(ConstantPool pool, String className, List<Method> methods) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+        code.writeByte(0x2a); // aload_0
+        code.writeByte(0xb7); // invokespecial
+        code.writeShort(pool.methodRef("java/lang/Object", "<init>", "()V"));
+        for (int slot = 0; slot < methods.size(); slot++) {
+            Method method = methods.get(slot);
+            Class<?> type = method.getReturnType();
+            code.writeByte(0x2a); // aload_0
+            code.writeByte(0x2b); // aload_1
+            code.writeByte(0x11); // sipush
+            code.writeShort(slot);
+            code.writeByte(0x32); // aaload
+            if (type.isPrimitive()) {
+                Class<?> wrapper = wrapperType(type);
+                code.writeByte(0xc0); // checkcast
+                code.writeShort(pool.classRef(internalName(wrapper)));
+                code.writeByte(0xb6); // invokevirtual
+                code.writeShort(pool.methodRef(internalName(wrapper), type.getName() + "Value", "()" + descriptor(type)));
+            } else if (!type.equals(Object.class)) {
+                code.writeByte(0xc0); // checkcast
+                code.writeShort(pool.classRef(type.isArray() ? descriptor(type) : internalName(type)));
+            }
+            code.writeByte(0xb5); // putfield
+            code.writeShort(pool.fieldRef(className, method.getName(), descriptor(type)));
+        }
+        code.writeByte(0xb1); // return
+        return bytes.toByteArray();
+    }
+
+    private static byte[] accessorCode(ConstantPool pool, String className, Method method) throws IOException {
+        Class<?> type = method.getReturnType();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+        code.writeByte(0x2a); // aload_0
+        code.writeByte(0xb4); // getfield
+        code.writeShort(pool.fieldRef(className, method.getName(), descriptor(type)));
+        code.writeByte(returnOpcode(type));
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, ConstantPool pool, int codeAttribute, String name,
+                                    String descriptor, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(0x0001); // ACC_PUBLIC
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == long.class) {
+            return 0xad; // lreturn
+        } else if (type == float.class) {
+            return 0xae; // freturn
+        } else if (type == double.class) {
+            return 0xaf; // dreturn
+        } else if (type.isPrimitive()) {
+            return 0xac; // ireturn
+        } else {
+            return 0xb0; // areturn
+        }
+    }
+
+    private static Class<?> wrapperType(Class<?> primitive) {
+        return MethodType.methodType(primitive).wrap().returnType();
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        return MethodType.methodType(type).toMethodDescriptorString().substring(2);
+    }
+
+    /**
+     * Minimal constant pool builder, supporting only the entries needed for the generated classes.
+     */
+    private static class ConstantPool {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = indices.get("U" + value);
+            if (index == null) {
+                out.writeByte(1);
+                out.writeUTF(value);
+                index = register("U" + value);
+            }
+            return index;
+        }
+
+        int classRef(String internalName) throws IOException {
+            return reference("C" + internalName, 7, utf8(internalName), -1);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return reference("F" + owner + "." + name + ":" + descriptor, 9, classRef(owner), nameAndType(name, descriptor));
+        }
+
+        int methodRef(String owner, String name, String descriptor) throws IOException {
+            return reference("M" + owner + "." + name + descriptor, 10, classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            return reference("N" + name + ":" + descriptor, 12, utf8(name), utf8(descriptor));
+        }
+
+        private int reference(String key, int tag, int first, int second) throws IOException {
+            Integer index = indices.get(key);
+            if (index == null) {
+                out.writeByte(tag);
+                out.writeShort(first);
+                if (second >= 0) {
+                    out.writeShort(second);
+                }
+                index = register(key);
+            }
+            return index;
+        }
+
+        private int register(String key) {
+            indices.put(key, count);
+            return count++;
+        }
+
+        void write(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+    }
+}
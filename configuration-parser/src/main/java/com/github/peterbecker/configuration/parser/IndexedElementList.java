@@ -0,0 +1,174 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.v1.IndexedList;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * The implementation of {@linkplain IndexedList}: an immutable array of elements plus one hash map per indexed option.
+ * <p/>
+ * The indexes are built once, by calling the indexed options on every element. Lookups only hash the value, elements
+ * are not touched. Optional options are indexed by their content, elements where they are empty are not indexed.
+ */
+final class IndexedElementList<T> extends AbstractList<T> implements IndexedList<T>, RandomAccess {
+    private final Object[] elements;
+    /**
+     * The elements by value, per option name. Elements with a unique value are stored directly, others as
+     * {@linkplain Duplicates}.
+     */
+    private final Map<String, Map<Object, Object>> indexes;
+
+    private IndexedElementList(Object[] elements, Map<String, Map<Object, Object>> indexes) {
+        this.elements = elements;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Returns the elements as the option declares them: indexed if requested, otherwise as an immutable list.
+     */
+    static <T> List<T> of(OptionSchema option, List<T> elements) {
+        if (!option.isIndexed()) {
+            return InterfaceParser.immutableList(elements);
+        }
+        List<String> names = new ArrayList<>(option.getIndexMethods().size());
+        List<Function<? super T, ?>> accessors = new ArrayList<>(names.size());
+        for (Method method : option.getIndexMethods()) {
+            names.add(method.getName());
+            accessors.add(element -> getValue(method, element));
+        }
+        return of(elements, names, accessors);
+    }
+
+    /**
+     * Indexes the elements by the options given, whose values are read with the accessors at the same position.
+     */
+    static <T> IndexedElementList<T> of(List<T> elements, List<String> names,
+                                        List<? extends Function<? super T, ?>> accessors) {
+        Object[] array = elements.toArray();
+        Map<String, Map<Object, Object>> indexes = new HashMap<>((int) (names.size() / 0.75f) + 1);
+        for (int i = 0; i < names.size(); i++) {
+            indexes.put(names.get(i), buildIndex(accessors.get(i), array));
+        }
+        return new IndexedElementList<>(array, indexes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Map<Object, Object> buildIndex(Function<? super T, ?> accessor, Object[] elements) {
+        Map<Object, Object> index = new HashMap<>((int) (elements.length / 0.75f) + 1);
+        for (Object element : elements) {
+            Object value = accessor.apply((T) element);
+            if (value instanceof Optional) {
+                value = ((Optional<?>) value).orElse(null);
+            }
+            if (value == null) {
+                continue;
+            }
+            Object existing = index.putIfAbsent(value, element);
+            if (existing instanceof Duplicates) {
+                ((Duplicates) existing).append(element);
+            } else if (existing != null) {
+                Duplicates duplicates = new Duplicates(existing);
+                duplicates.append(element);
+                index.put(value, duplicates);
+            }
+        }
+        return index;
+    }
+
+    private static Object getValue(Method method, Object element) {
+        try {
+            return method.invoke(element);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Can not read option " + method.getName(), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can not read option " + method.getName(), e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<T> lookup(String option, Object value) {
+        Object match = getIndex(option).get(value);
+        if (match instanceof Duplicates) {
+            return Optional.of((T) ((Duplicates) match).get(0));
+        }
+        return Optional.ofNullable((T) match);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> lookupAll(String option, Object value) {
+        Object match = getIndex(option).get(value);
+        if (match == null) {
+            return Collections.emptyList();
+        }
+        return match instanceof Duplicates ? (List<T>) match : Collections.singletonList((T) match);
+    }
+
+    private Map<Object, Object> getIndex(String option) {
+        Map<Object, Object> index = indexes.get(option);
+        if (index == null) {
+            throw new IllegalArgumentException("List is not indexed by " + option);
+        }
+        return index;
+    }
+
+    /**
+     * The elements sharing a value, distinguished from single elements, which might be lists themselves. Only
+     * appended to while the index is built, immutable for everybody else.
+     */
+    private static final class Duplicates extends AbstractList<Object> implements RandomAccess {
+        private Object[] elements;
+        private int size;
+
+        private Duplicates(Object first) {
+            this.elements = new Object[]{first, null};
+            this.size = 1;
+        }
+
+        private void append(Object element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = element;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
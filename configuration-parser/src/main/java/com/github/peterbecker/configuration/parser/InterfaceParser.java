@@ -1,13 +1,12 @@
 package com.github.peterbecker.configuration.parser;
 
+import com.github.peterbecker.configuration.BindingMode;
 import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
 import com.github.peterbecker.configuration.storage.Key;
 import com.github.peterbecker.configuration.storage.Store;
-import com.github.peterbecker.configuration.v1.Option;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -17,12 +16,12 @@ import java.util.function.Function;
 
 public class InterfaceParser {
     /**
-     * Map of classes to functions parsing corresponding objects from a string.
+     * Map of classes to functions parsing corresponding objects from a string. Not modified after initialization.
      * <p/>
      * In this map the two type wildcards are covariant, i.e. the return value of a function in the value position is
      * the class in the key position.
      */
-    private static final Map<Class<?>, Function<String, ?>> DEFAULT_VALUE_PARSERS = new HashMap<>();
+    static final Map<Class<?>, Function<String, ?>> DEFAULT_VALUE_PARSERS = new HashMap<>();
 
     static {
         DEFAULT_VALUE_PARSERS.put(String.class, Function.identity());
@@ -62,6 +61,49 @@ public class InterfaceParser {
         DEFAULT_VALUE_PARSERS.put(ZoneOffset.class, ZoneOffset::of);
     }
 
+    /**
+     * Checks if values of the type given are parsed by the default parser, possibly wrapped in a
+     * {@linkplain TimedValueParser} or {@linkplain InterningValueParser}.
+     */
+    static boolean usesDefaultParser(Class<?> valueType, Map<Class<?>, Function<String, ?>> valueParsers) {
+        Function<String, ?> parser = valueParsers.get(valueType);
+        return parser == null || DelegatingValueParser.unwrap(parser) == DEFAULT_VALUE_PARSERS.get(valueType);
+    }
+
+    /**
+     * Returns the keys of a map option, failing if the store can not enumerate them.
+     */
+    static Set<String> getMapKeys(Store store, Key key) throws ConfigurationException {
+        Optional<Set<String>> mapKeys = store.getMapKeys(key);
+        if (!mapKeys.isPresent()) {
+            throw new ConfigurationException(
+                    "Store " + store.getClass().getName() + " does not support map option " + key.getOptionName());
+        }
+        return mapKeys.get();
+    }
+
+    /**
+     * Creates a hash map sized to hold the number of entries given without rehashing.
+     */
+    static <V> Map<String, V> newMap(int size) {
+        return new HashMap<>((int) (size / 0.75f) + 1);
+    }
+
+    /**
+     * Makes a map created by {@linkplain #newMap(int)} immutable.
+     */
+    static <V> Map<String, V> immutableMap(Map<String, V> map) {
+        return map.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Makes a list value immutable, like the {@linkplain PrimitiveLists} and {@linkplain IndexedElementList}s used for
+     * other list options.
+     */
+    static <V> List<V> immutableList(List<V> list) {
+        return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
     private static char getSoleCharacter(String s) {
         if (s.isEmpty()) {
             throw new IllegalArgumentException("Missing value");
@@ -74,140 +116,313 @@ public class InterfaceParser {
 
     public static <T> ConfigurationInvocationHandler<T> parse(
             Class<T> configClass, Store store, Map<Class<?>, Function<String, ?>> additionalValueParsers) throws ConfigurationException {
-        Map<Class<?>, Function<String, ?>> valueParsers = new HashMap<>();
-        valueParsers.putAll(DEFAULT_VALUE_PARSERS);
-        valueParsers.putAll(additionalValueParsers);
-        return parse(configClass, store, valueParsers, Key.ROOT);
-    }
-
-    private static <T> ConfigurationInvocationHandler<T> parse(Class<T> configClass, Store store,
-                                                               Map<Class<?>, Function<String, ?>> valueParsers, Key context) throws ConfigurationException {
-        Map<String, Object> data = new HashMap<>();
-        for (Method method : configClass.getMethods()) {
-            if (method.isDefault()) {
-                continue;
+        return parse(configClass, store, additionalValueParsers, BindingMode.PROXY);
+    }
+
+    public static <T> ConfigurationInvocationHandler<T> parse(
+            Class<T> configClass, Store store, Map<Class<?>, Function<String, ?>> additionalValueParsers,
+            BindingMode bindingMode) throws ConfigurationException {
+        return parse(ConfigurationSchema.of(configClass), store, additionalValueParsers, bindingMode, Key.ROOT);
+    }
+
+    /**
+     * Creates an object implementing the configuration interface using the data in the handler.
+     * <p/>
+     * If the binding mode requests a generated class but the JVM does not support defining one, a proxy is returned.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T newInstance(Class<T> configClass, ConfigurationInvocationHandler<T> handler,
+                                    BindingMode bindingMode) {
+        if (bindingMode == BindingMode.GENERATED_CLASS) {
+            Optional<T> instance = ImplementationGenerator.newInstance(configClass, handler.getValues());
+            if (instance.isPresent()) {
+                return instance.get();
             }
-            validateMethod(method);
-            Class<?> returnType = method.getReturnType();
-            if (returnType.equals(List.class)) {
-                Class<?> actualType = (Class<?>) ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
-                List<Object> result = new ArrayList<>();
-                int i = 0;
-                Optional<String> value;
-                do {
-                    if (actualType.isInterface()) {
-                        Key newContext = new Key(context, method.getName(), i);
-                        try {
-                            result.add(Proxy.newProxyInstance(
-                                    actualType.getClassLoader(),
-                                    new Class[]{actualType},
-                                    parse(actualType, store, valueParsers, newContext)));
-                            i++;
-                        } catch (ConfigurationException e) { // inelegant, but we are not too worried about performance here
-                            i = -1;
+        }
+        return (T) Proxy.newProxyInstance(
+                configClass.getClassLoader(),
+                new Class[]{configClass},
+                handler
+        );
+    }
+
+    /**
+     * Creates an object implementing the configuration interface that parses the values from the store on first access.
+     * <p/>
+     * Only checks that parsers for all value types are available, the values are not read.
+     */
+    public static <T> T newLazyInstance(Class<T> configClass, Store store,
+                                        Map<Class<?>, Function<String, ?>> additionalValueParsers)
+            throws ConfigurationException {
+        return newLazyInstance(ConfigurationSchema.of(configClass), store, additionalValueParsers, Key.ROOT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newLazyInstance(ConfigurationSchema<T> schema, Store store,
+                                         Map<Class<?>, Function<String, ?>> additionalValueParsers, Key context)
+            throws ConfigurationException {
+        for (OptionSchema option : schema.getOptions()) {
+            if (!option.isNested()) {
+                option.checkParser(additionalValueParsers);
+            }
+        }
+        Class<T> configClass = schema.getConfigurationInterface();
+        return (T) Proxy.newProxyInstance(
+                configClass.getClassLoader(),
+                new Class[]{configClass},
+                new LazyInvocationHandler<>(schema, store, additionalValueParsers, context)
+        );
+    }
+
+    /**
+     * Parses all values of a configuration object created by {@linkplain #newLazyInstance(Class, Store, Map)}, does
+     * nothing for other configuration objects.
+     */
+    public static void validateAll(Object configuration) throws ConfigurationException {
+        LazyInvocationHandler.validateAll(configuration);
+    }
+
+    /**
+     * Parses a single option for a lazily bound configuration object, nested objects are bound lazily as well.
+     */
+    static Object parseOption(OptionSchema option, Store store,
+                              Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                              Key context) throws ConfigurationException {
+        String name = option.getName();
+        Map<Key, String> storeValues = Collections.emptyMap();
+        int listSize = -1;
+        Set<String> mapKeys = null;
+        switch (option.getKind()) {
+            case VALUE:
+            case OPTIONAL: {
+                Key key = Key.of(context, name, -1);
+                Optional<String> value = store.getValue(key);
+                if (value.isPresent()) {
+                    storeValues = Collections.singletonMap(key, value.get());
+                }
+                break;
+            }
+            case LIST:
+            case NESTED_LIST: {
+                listSize = store.getListSize(Key.of(context, name, -1)).orElse(-1);
+                if (option.getKind() == OptionSchema.Kind.LIST && listSize > 0) {
+                    List<Key> keys = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        keys.add(Key.of(context, name, i));
+                    }
+                    storeValues = store.getValues(keys);
+                }
+                break;
+            }
+            case MAP:
+            case NESTED_MAP: {
+                Key mapKey = Key.of(context, name, -1);
+                mapKeys = getMapKeys(store, mapKey);
+                if (option.getKind() == OptionSchema.Kind.MAP && !mapKeys.isEmpty()) {
+                    List<Key> keys = new ArrayList<>(mapKeys.size());
+                    for (String entry : mapKeys) {
+                        keys.add(Key.entry(mapKey, entry));
+                    }
+                    storeValues = store.getValues(keys);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        return parseOption(option, store, storeValues, listSize, mapKeys, additionalValueParsers, BindingMode.LAZY,
+                context);
+    }
+
+    /**
+     * Parses the data for one configuration interface.
+     * <p/>
+     * The values of all options on this level (including list elements where the store can tell the list size, and
+     * map entries) are requested from the store in a single batch, nested interfaces are parsed recursively afterwards.
+     * <p/>
+     * The additional value parsers are consulted before the defaults, which are resolved in the schema.
+     */
+    private static <T> ConfigurationInvocationHandler<T> parse(ConfigurationSchema<T> schema, Store store,
+                                                               Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                                               BindingMode bindingMode, Key context) throws ConfigurationException {
+        try (EventScope event = FlightRecorderEvents.beginInterfaceParse(schema.getConfigurationInterface(), context)) {
+            return parseOptions(schema, store, additionalValueParsers, bindingMode, context);
+        }
+    }
+
+    private static <T> ConfigurationInvocationHandler<T> parseOptions(ConfigurationSchema<T> schema, Store store,
+                                                                      Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                                                      BindingMode bindingMode, Key context) throws ConfigurationException {
+        int[] listSizes = new int[schema.size()];
+        List<Set<String>> mapKeys = null;
+        List<Key> keys = new ArrayList<>();
+        for (OptionSchema option : schema.getOptions()) {
+            String name = option.getName();
+            switch (option.getKind()) {
+                case VALUE:
+                case OPTIONAL:
+                    keys.add(Key.of(context, name, -1));
+                    break;
+                case LIST:
+                case NESTED_LIST:
+                    int size = store.getListSize(Key.of(context, name, -1)).orElse(-1);
+                    listSizes[option.getSlot()] = size;
+                    if (option.getKind() == OptionSchema.Kind.LIST) {
+                        for (int i = 0; i < size; i++) {
+                            keys.add(Key.of(context, name, i));
                         }
-                    } else {
-                        value = store.getValue(new Key(context, method.getName(), i));
-                        if (value.isPresent()) {
-                            result.add(getValue(value, store, valueParsers, context, method, actualType));
-                            i++;
-                        } else {
-                            i = -1;
+                    }
+                    break;
+                case MAP:
+                case NESTED_MAP:
+                    Key mapKey = Key.of(context, name, -1);
+                    Set<String> entries = getMapKeys(store, mapKey);
+                    if (mapKeys == null) {
+                        mapKeys = new ArrayList<>(Collections.nCopies(schema.size(), null));
+                    }
+                    mapKeys.set(option.getSlot(), entries);
+                    if (option.getKind() == OptionSchema.Kind.MAP) {
+                        for (String entry : entries) {
+                            keys.add(Key.entry(mapKey, entry));
                         }
                     }
-                } while (i >= 0);
-                data.put(method.getName(), result);
-            } else {
-                Optional<String> value = store.getValue(new Key(context, method.getName(), -1));
-                data.put(method.getName(), getValue(value, store, valueParsers, context, method, returnType));
+                    break;
+                default:
+                    break;
             }
         }
-        return new ConfigurationInvocationHandler<>(configClass, data);
-    }
-
-    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-    private static Object getValue(Optional<String> value, Store store, Map<Class<?>, Function<String, ?>> valueParsers, Key context, Method method, Class<?> returnType) throws ConfigurationException {
-        Object valueToStore;
-        if (returnType.isInterface()) {
-            Key newContext = new Key(context, method.getName(), -1);
-            valueToStore = Proxy.newProxyInstance(
-                    returnType.getClassLoader(),
-                    new Class[]{returnType},
-                    parse(returnType, store, valueParsers, newContext)
-            );
-        } else if (returnType.isEnum() && !valueParsers.containsKey(returnType)) {
-            if (!value.isPresent()) {
-                throw new ConfigurationException("No value provided for mandatory option " + method.getName());
-            }
-            try {
-                Method valueOf = returnType.getMethod("valueOf", String.class);
-                valueToStore = valueOf.invoke(null, value.get());
-            } catch (NoSuchMethodException e) {
-                // this should never happen, but we re-throw to be sure we know if it does
-                throw new ConfigurationException("Internal error, can not find valueOf method on enum", e);
-            } catch (InvocationTargetException | IllegalAccessException e) {
-                throw new ConfigurationException("Can not find value " + value.get() + " for enum " + returnType.getCanonicalName());
+        Map<Key, String> storeValues = keys.isEmpty() ? Collections.emptyMap() : store.getValues(keys);
+
+        Object[] values = new Object[schema.size()];
+        for (OptionSchema option : schema.getOptions()) {
+            values[option.getSlot()] = parseOption(option, store, storeValues, listSizes[option.getSlot()],
+                    mapKeys == null ? null : mapKeys.get(option.getSlot()), additionalValueParsers, bindingMode,
+                    context);
+        }
+        return new ConfigurationInvocationHandler<>(schema.getConfigurationInterface(), values);
+    }
+
+    /**
+     * Parses a single option.
+     *
+     * @param storeValues the values fetched from the store in batch
+     * @param listSize    the size of the list for list options, -1 if not known
+     * @param mapKeys     the keys of the entries for map options
+     */
+    private static Object parseOption(OptionSchema option, Store store, Map<Key, String> storeValues, int listSize,
+                                      Set<String> mapKeys, Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                      BindingMode bindingMode, Key context) throws ConfigurationException {
+        String name = option.getName();
+        switch (option.getKind()) {
+            case VALUE: {
+                option.checkParser(additionalValueParsers);
+                String value = storeValues.get(Key.of(context, name, -1));
+                if (value != null) {
+                    return option.parse(value, additionalValueParsers);
+                }
+                return option.getParsedDefaultValue(additionalValueParsers);
             }
-        } else if (returnType.equals(Optional.class)) {
-            Class<?> actualType = (Class<?>) ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
-            if (actualType.isEnum() && !valueParsers.containsKey(actualType)) {
-                try {
-                    Method valueOf = actualType.getMethod("valueOf", String.class);
-                    valueToStore = value.isPresent() ? Optional.of(valueOf.invoke(null, value.get())) : Optional.empty();
-                } catch (NoSuchMethodException e) {
-                    // this should never happen, but we re-throw to be sure we know if it does
-                    throw new ConfigurationException("Internal error, can not find valueOf method on enum", e);
-                } catch (InvocationTargetException | IllegalAccessException e) {
-                    throw new ConfigurationException("Can not find value " + value.get() + " for enum " + returnType.getCanonicalName());
+            case OPTIONAL: {
+                option.checkParser(additionalValueParsers);
+                String value = storeValues.get(Key.of(context, name, -1));
+                if (value != null) {
+                    return Optional.ofNullable(option.parse(value, additionalValueParsers));
                 }
-            } else {
-                Function<String, ?> valueParser = getValueParser(method, actualType, valueParsers);
-                valueToStore = value.map(valueParser);
+                return Optional.empty();
             }
-        } else {
-            String realValue;
-            if (value.isPresent()) {
-                realValue = value.get();
-            } else {
-                Option optionAnnotation = method.getAnnotation(Option.class);
-                if (optionAnnotation != null && !optionAnnotation.defaultValue().equals(Option.NOT_SET)) {
-                    realValue = optionAnnotation.defaultValue();
+            case NESTED:
+                return parseNested(option.getValueType(), store, additionalValueParsers, bindingMode,
+                        Key.of(context, name, -1));
+            case LIST: {
+                List<String> values;
+                if (listSize >= 0) {
+                    values = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        String value = storeValues.get(Key.of(context, name, i));
+                        if (value == null) {
+                            throw new ConfigurationException("Missing element " + i + " in list option " + name);
+                        }
+                        values.add(value);
+                    }
                 } else {
-                    throw new ConfigurationException("No value provided for mandatory option " + method.getName());
+                    // the store can not tell us the size, so we probe until an element is missing
+                    values = new ArrayList<>();
+                    for (int i = 0; ; i++) {
+                        Optional<String> value = store.getValue(Key.of(context, name, i));
+                        if (!value.isPresent()) {
+                            break;
+                        }
+                        values.add(value.get());
+                    }
+                }
+                if (PrimitiveLists.isSupported(option.getValueType())
+                        && usesDefaultParser(option.getValueType(), additionalValueParsers)) {
+                    return PrimitiveLists.parse(option.getValueType(), name, values);
                 }
+                List<Object> result = new ArrayList<>(values.size());
+                for (String value : values) {
+                    result.add(option.parse(value, additionalValueParsers));
+                }
+                return immutableList(result);
             }
-            Function<String, ?> valueParser = getValueParser(method, returnType, valueParsers);
-            valueToStore = valueParser.apply(realValue);
-        }
-        return valueToStore;
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <T> Function<String, T> getValueParser(Method method, Class<T> actualType,
-                                                          Map<Class<?>, Function<String, ?>> valueParsers) throws ConfigurationException {
-        Function<String, T> valueParser = (Function<String, T>) valueParsers.get(actualType);
-        if (valueParser == null) {
-            throw new ConfigurationException(
-                    String.format(
-                            "Can not parse type %s used in return value of %s#%s()",
-                            actualType.getName(),
-                            method.getClass().getName(),
-                            method.getName()
-                    )
-            );
+            case NESTED_LIST: {
+                if (listSize >= 0) {
+                    List<Object> result = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        result.add(parseNested(option.getValueType(), store, additionalValueParsers, bindingMode,
+                                Key.of(context, name, i)));
+                    }
+                    return IndexedElementList.of(option, result);
+                }
+                // the store can not tell us the size, so we parse until an element fails, which needs eager parsing
+                BindingMode elementMode = bindingMode == BindingMode.LAZY ? BindingMode.PROXY : bindingMode;
+                List<Object> result = new ArrayList<>();
+                for (int i = 0; ; i++) {
+                    try {
+                        result.add(parseNested(option.getValueType(), store, additionalValueParsers, elementMode,
+                                Key.of(context, name, i)));
+                    } catch (ConfigurationException e) {
+                        return IndexedElementList.of(option, result);
+                    }
+                }
+            }
+            case MAP: {
+                option.checkParser(additionalValueParsers);
+                Key mapKey = Key.of(context, name, -1);
+                Map<String, Object> result = newMap(mapKeys.size());
+                for (String entry : mapKeys) {
+                    String value = storeValues.get(Key.entry(mapKey, entry));
+                    if (value == null) {
+                        throw new ConfigurationException("Missing value for entry " + entry + " in map option " + name);
+                    }
+                    result.put(entry, option.parse(value, additionalValueParsers));
+                }
+                return immutableMap(result);
+            }
+            case NESTED_MAP: {
+                Key mapKey = Key.of(context, name, -1);
+                Map<String, Object> result = newMap(mapKeys.size());
+                for (String entry : mapKeys) {
+                    result.put(entry, parseNested(option.getValueType(), store, additionalValueParsers, bindingMode,
+                            Key.entry(mapKey, entry)));
+                }
+                return immutableMap(result);
+            }
+            default:
+                throw new IllegalStateException("Unknown option kind " + option.getKind());
         }
-        return valueParser;
     }
 
-    private static void validateMethod(Method method) throws ConfigurationException {
-        if (method.getParameterCount() != 0) {
-            throw new ConfigurationException(
-                    String.format(
-                            "Method %s#%s has parameters, configuration interfaces should not have any",
-                            method.getClass().getName(),
-                            method.getName()
-                    )
-            );
+    private static <T> T parseNested(Class<T> configClass, Store store,
+                                     Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                     BindingMode bindingMode, Key context) throws ConfigurationException {
+        if (bindingMode == BindingMode.LAZY) {
+            return newLazyInstance(ConfigurationSchema.of(configClass), store, additionalValueParsers, context);
         }
+        return newInstance(
+                configClass,
+                parse(ConfigurationSchema.of(configClass), store, additionalValueParsers, bindingMode, context),
+                bindingMode
+        );
     }
 }
@@ -0,0 +1,43 @@
+package com.github.peterbecker.configuration.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A value parser passing its results through a {@linkplain ValueInterner}.
+ */
+public final class InterningValueParser<T> implements Function<String, T>, DelegatingValueParser {
+    private final Function<String, T> delegate;
+    private final ValueInterner interner;
+
+    private InterningValueParser(Function<String, T> delegate, ValueInterner interner) {
+        this.delegate = delegate;
+        this.interner = interner;
+    }
+
+    /**
+     * Returns the default and additional value parsers, all wrapped to intern their results.
+     */
+    public static Map<Class<?>, Function<String, ?>> wrapAll(Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                                           ValueInterner interner) {
+        Map<Class<?>, Function<String, ?>> result = new HashMap<>();
+        for (Map.Entry<Class<?>, Function<String, ?>> entry : InterfaceParser.DEFAULT_VALUE_PARSERS.entrySet()) {
+            result.put(entry.getKey(), new InterningValueParser<>(entry.getValue(), interner));
+        }
+        for (Map.Entry<Class<?>, Function<String, ?>> entry : additionalValueParsers.entrySet()) {
+            result.put(entry.getKey(), new InterningValueParser<>(entry.getValue(), interner));
+        }
+        return result;
+    }
+
+    @Override
+    public Function<String, ?> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public T apply(String value) {
+        return interner.intern(delegate.apply(value));
+    }
+}
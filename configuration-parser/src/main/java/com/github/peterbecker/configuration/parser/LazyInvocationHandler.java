@@ -0,0 +1,163 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.UncheckedConfigurationException;
+import com.github.peterbecker.configuration.storage.Key;
+import com.github.peterbecker.configuration.storage.Store;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Binds calls to the configuration interface to values parsed from the store on first access.
+ * <p/>
+ * Parsed values are memoized per slot. If two threads access an option for the first time concurrently both might parse
+ * it, but only the first result is kept, so all callers see the same object.
+ */
+class LazyInvocationHandler<T> implements InvocationHandler {
+    private static final Object[] NO_ARGS = new Object[0];
+    /**
+     * Stands in for values parsed as null, since null marks values not parsed yet.
+     */
+    private static final Object NULL = new Object();
+
+    private final ConfigurationSchema<T> schema;
+    private final Store store;
+    private final Map<Class<?>, Function<String, ?>> additionalValueParsers;
+    private final Key context;
+    private final AtomicReferenceArray<Object> values;
+    /**
+     * Where calls are counted, null unless {@linkplain OptionAccessCounts} are tracked. Nested objects parsed later
+     * are counted under the option path prefix.
+     */
+    private OptionAccessCounts accessCounts;
+    private String accessPrefix;
+    private LongAdder[] accessCounters;
+
+    LazyInvocationHandler(ConfigurationSchema<T> schema, Store store,
+                          Map<Class<?>, Function<String, ?>> additionalValueParsers, Key context) {
+        this.schema = schema;
+        this.store = store;
+        this.additionalValueParsers = additionalValueParsers;
+        this.context = context;
+        this.values = new AtomicReferenceArray<>(schema.size());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        int dispatch = schema.getSlots().getDispatch(method);
+        if (dispatch >= 0) {
+            LongAdder[] counters = accessCounters;
+            if (counters != null) {
+                counters[dispatch].increment();
+            }
+            return getValue(dispatch);
+        }
+        if (dispatch != Integer.MIN_VALUE) {
+            Object[] arguments = args == null ? NO_ARGS : args;
+            return (Object) schema.getSlots().getDefaultMethod(dispatch).invokeExact(proxy, arguments);
+        }
+        return ConfigurationInvocationHandler.invokeObjectMethod(schema.getConfigurationInterface(), proxy, method, args);
+    }
+
+    private Object getValue(int slot) {
+        Object value = values.get(slot);
+        if (value == null) {
+            OptionSchema option = schema.getOptions().get(slot);
+            try {
+                Object parsed = InterfaceParser.parseOption(option, store, additionalValueParsers, context);
+                if (accessCounts != null) {
+                    accessCounts.attachNested(option, parsed, accessPrefix);
+                }
+                values.compareAndSet(slot, null, parsed == null ? NULL : parsed);
+            } catch (ConfigurationException e) {
+                throw new UncheckedConfigurationException(e);
+            } catch (RuntimeException e) { // failures of the value parsers
+                throw new UncheckedConfigurationException(
+                        new ConfigurationException("Invalid value for option " + option.getName(), e));
+            }
+            value = values.get(slot);
+        }
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * Returns the values by slot, parsing the options that have not been accessed yet. The values are kept, so options
+     * are still parsed only once.
+     *
+     * @throws ConfigurationException if a value can not be parsed, including failures of the value parsers
+     */
+    Object[] getValues() throws ConfigurationException {
+        Object[] result = new Object[schema.size()];
+        for (OptionSchema option : schema.getOptions()) {
+            try {
+                result[option.getSlot()] = getValue(option.getSlot());
+            } catch (UncheckedConfigurationException e) {
+                throw e.getCause();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a handler on the same store that has the values given already, as if they had been accessed.
+     */
+    LazyInvocationHandler<T> withValues(Object[] parsedValues) {
+        LazyInvocationHandler<T> handler = new LazyInvocationHandler<>(schema, store, additionalValueParsers, context);
+        for (int i = 0; i < parsedValues.length; i++) {
+            handler.values.set(i, parsedValues[i] == null ? NULL : parsedValues[i]);
+        }
+        return handler;
+    }
+
+    void setAccessCounts(OptionAccessCounts accessCounts, String prefix) throws ConfigurationException {
+        this.accessCounts = accessCounts;
+        this.accessPrefix = prefix;
+        this.accessCounters = accessCounts.getCounters(schema, prefix);
+        for (OptionSchema option : schema.getOptions()) {
+            Object value = values.get(option.getSlot());
+            if (value != null && value != NULL) {
+                accessCounts.attachNested(option, value, prefix);
+            }
+        }
+    }
+
+    /**
+     * Parses all values of the configuration object given, including nested ones, if it is bound lazily.
+     */
+    static void validateAll(Object configuration) throws ConfigurationException {
+        if (!Proxy.isProxyClass(configuration.getClass())) {
+            return;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(configuration);
+        if (!(handler instanceof LazyInvocationHandler)) {
+            return;
+        }
+        LazyInvocationHandler<?> lazyHandler = (LazyInvocationHandler<?>) handler;
+        for (OptionSchema option : lazyHandler.schema.getOptions()) {
+            Object value;
+            try {
+                value = lazyHandler.getValue(option.getSlot());
+            } catch (UncheckedConfigurationException e) {
+                throw e.getCause();
+            }
+            if (option.getKind() == OptionSchema.Kind.NESTED) {
+                validateAll(value);
+            } else if (option.getKind() == OptionSchema.Kind.NESTED_LIST) {
+                for (Object element : (List<?>) value) {
+                    validateAll(element);
+                }
+            } else if (option.getKind() == OptionSchema.Kind.NESTED_MAP) {
+                for (Object element : ((Map<?, ?>) value).values()) {
+                    validateAll(element);
+                }
+            }
+        }
+    }
+}
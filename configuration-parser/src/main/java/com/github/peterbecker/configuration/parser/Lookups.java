@@ -0,0 +1,73 @@
+package com.github.peterbecker.configuration.parser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Optional;
+
+/**
+ * Access to method handle lookups with private access to configuration interfaces.
+ * <p/>
+ * The project targets Java 8, so the APIs added in later versions are resolved reflectively.
+ */
+class Lookups {
+    private static final MethodHandle PRIVATE_LOOKUP_IN;
+
+    static {
+        MethodHandle privateLookupIn;
+        try {
+            privateLookupIn = MethodHandles.publicLookup().findStatic(MethodHandles.class, "privateLookupIn",
+                    MethodType.methodType(MethodHandles.Lookup.class, Class.class, MethodHandles.Lookup.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            privateLookupIn = null; // Java 8
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+    }
+
+    private Lookups() {
+        // static methods only
+    }
+
+    /**
+     * True if the running JVM offers <code>MethodHandles.privateLookupIn</code>, i.e. Java 9 or later.
+     */
+    static boolean isModernJvm() {
+        return PRIVATE_LOOKUP_IN != null;
+    }
+
+    /**
+     * Returns a lookup with private access in the class given.
+     * <p/>
+     * On Java 9 and later this uses <code>MethodHandles.privateLookupIn</code>, on Java 8 the private constructor of
+     * {@linkplain MethodHandles.Lookup} (inspired by https://stackoverflow.com/a/49532463/19820).
+     *
+     * @throws IllegalAccessException if the class is in a module that is not open to us
+     */
+    static MethodHandles.Lookup privateLookupIn(Class<?> type) throws IllegalAccessException {
+        try {
+            if (PRIVATE_LOOKUP_IN != null) {
+                return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(type, MethodHandles.lookup());
+            }
+            Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class
+                    .getDeclaredConstructor(Class.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(type).in(type);
+        } catch (IllegalAccessException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Unexpected exception creating lookup for " + type.getName(), t);
+        }
+    }
+
+    /**
+     * Optional-returning variant of {@linkplain #privateLookupIn(Class)} for callers that have a fallback.
+     */
+    static Optional<MethodHandles.Lookup> tryPrivateLookupIn(Class<?> type) {
+        try {
+            return Optional.of(privateLookupIn(type));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
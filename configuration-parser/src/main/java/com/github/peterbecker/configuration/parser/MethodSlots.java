@@ -0,0 +1,124 @@
+package com.github.peterbecker.configuration.parser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The slot table of a configuration interface.
+ * <p/>
+ * Each option method gets a slot, which is its index in the value arrays of the
+ * {@linkplain ConfigurationInvocationHandler} and the constructor argument of generated implementations. Default
+ * methods are resolved into method handles once per interface.
+ */
+class MethodSlots {
+    private static final ClassValue<MethodSlots> SLOTS = new ClassValue<MethodSlots>() {
+        @Override
+        protected MethodSlots computeValue(Class<?> type) {
+            return new MethodSlots(type);
+        }
+    };
+
+    private final List<Method> optionMethods;
+    private final Map<String, Integer> slotsByName;
+    /**
+     * Maps option methods to their slot, default methods to <code>-1 - index</code> into {@linkplain #defaultMethods}.
+     */
+    private final Map<Method, Integer> dispatch;
+    private final MethodHandle[] defaultMethods;
+
+    private MethodSlots(Class<?> configurationInterface) {
+        Map<String, Method> options = new LinkedHashMap<>();
+        List<Method> defaults = new ArrayList<>();
+        for (Method method : configurationInterface.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.isDefault()) {
+                defaults.add(method);
+            } else if (method.getParameterCount() == 0) {
+                options.putIfAbsent(method.getName(), method);
+            }
+        }
+        this.optionMethods = Collections.unmodifiableList(new ArrayList<>(options.values()));
+        this.slotsByName = new HashMap<>();
+        this.dispatch = new HashMap<>();
+        for (Method method : configurationInterface.getMethods()) {
+            if (!method.isDefault() && options.containsKey(method.getName())) {
+                int slot = optionMethods.indexOf(options.get(method.getName()));
+                slotsByName.put(method.getName(), slot);
+                dispatch.put(method, slot);
+            }
+        }
+        this.defaultMethods = new MethodHandle[defaults.size()];
+        for (int i = 0; i < defaults.size(); i++) {
+            dispatch.put(defaults.get(i), -1 - i);
+            defaultMethods[i] = resolveDefaultMethod(defaults.get(i));
+        }
+    }
+
+    static MethodSlots of(Class<?> configurationInterface) {
+        return SLOTS.get(configurationInterface);
+    }
+
+    /**
+     * The methods that represent options, in slot order.
+     */
+    List<Method> getOptionMethods() {
+        return optionMethods;
+    }
+
+    int size() {
+        return optionMethods.size();
+    }
+
+    int getSlot(String optionName) {
+        Integer slot = slotsByName.get(optionName);
+        if (slot == null) {
+            throw new IllegalArgumentException("No option named " + optionName);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot for option methods, <code>-1 - index</code> for default methods and
+     * {@linkplain Integer#MIN_VALUE} for anything else.
+     */
+    int getDispatch(Method method) {
+        Integer slot = dispatch.get(method);
+        return slot == null ? Integer.MIN_VALUE : slot;
+    }
+
+    /**
+     * The handle for a default method, taking the proxy and the argument array.
+     */
+    MethodHandle getDefaultMethod(int dispatch) {
+        return defaultMethods[-1 - dispatch];
+    }
+
+    private static MethodHandle resolveDefaultMethod(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            MethodHandle handle = Lookups.privateLookupIn(declaringClass)
+                    .unreflectSpecial(method, declaringClass);
+            int parameterCount = method.getParameterCount();
+            return handle
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+        } catch (IllegalAccessException e) {
+            // can not call the default method, report when it is actually used
+            return MethodHandles.dropArguments(
+                    MethodHandles.throwException(Object.class, IllegalStateException.class).bindTo(
+                            new IllegalStateException("Can not access default method " + method, e)),
+                    0, Object.class, Object[].class);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the calls to the options of a configuration object.
+ * <p/>
+ * Options are identified by their path, which is the option names separated by dots. Elements of lists and maps share
+ * their counters, e.g. all calls to <code>host()</code> on elements of <code>services()</code> are counted as
+ * <code>services.host</code>. The counters are striped, so counting adds little overhead even under contention.
+ * <p/>
+ * Only configuration objects implemented as proxies can be counted, for the other binding modes all counts stay zero.
+ */
+public final class OptionAccessCounts {
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private OptionAccessCounts() {
+    }
+
+    /**
+     * Starts counting the calls to the configuration object given and all its nested objects.
+     */
+    public static OptionAccessCounts track(Object configuration) throws ConfigurationException {
+        OptionAccessCounts counts = new OptionAccessCounts();
+        counts.attach(configuration, "");
+        return counts;
+    }
+
+    /**
+     * The number of calls to the option so far.
+     */
+    public long get(String optionPath) {
+        LongAdder counter = counters.get(optionPath);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * The number of calls to each option so far, sorted by path. Options not called yet are included.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    /**
+     * Sets up counting for a configuration object and the nested objects created so far.
+     */
+    void attach(Object configuration, String prefix) throws ConfigurationException {
+        if (configuration == null || !Proxy.isProxyClass(configuration.getClass())) {
+            return;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(configuration);
+        if (handler instanceof ConfigurationInvocationHandler) {
+            ConfigurationInvocationHandler<?> eagerHandler = (ConfigurationInvocationHandler<?>) handler;
+            ConfigurationSchema<?> schema = ConfigurationSchema.of(eagerHandler.getConfigurationInterface());
+            eagerHandler.setAccessCounters(getCounters(schema, prefix));
+            Object[] values = eagerHandler.getValues();
+            for (OptionSchema option : schema.getOptions()) {
+                attachNested(option, values[option.getSlot()], prefix);
+            }
+        } else if (handler instanceof LazyInvocationHandler) {
+            LazyInvocationHandler<?> lazyHandler = (LazyInvocationHandler<?>) handler;
+            lazyHandler.setAccessCounts(this, prefix);
+        }
+    }
+
+    /**
+     * Sets up counting for the value of an option if it is a nested object or a list or map of them.
+     */
+    void attachNested(OptionSchema option, Object value, String prefix) throws ConfigurationException {
+        if (option.getKind() == OptionSchema.Kind.NESTED) {
+            attach(value, prefix + option.getName() + ".");
+        } else if (option.getKind() == OptionSchema.Kind.NESTED_LIST) {
+            for (Object element : (List<?>) value) {
+                attach(element, prefix + option.getName() + ".");
+            }
+        } else if (option.getKind() == OptionSchema.Kind.NESTED_MAP) {
+            for (Object element : ((Map<?, ?>) value).values()) {
+                attach(element, prefix + option.getName() + ".");
+            }
+        }
+    }
+
+    LongAdder[] getCounters(ConfigurationSchema<?> schema, String prefix) {
+        LongAdder[] result = new LongAdder[schema.size()];
+        for (OptionSchema option : schema.getOptions()) {
+            result[option.getSlot()] = counters.computeIfAbsent(prefix + option.getName(), path -> new LongAdder());
+        }
+        return result;
+    }
+}
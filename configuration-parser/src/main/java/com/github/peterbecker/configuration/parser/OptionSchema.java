@@ -0,0 +1,257 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+import com.github.peterbecker.configuration.v1.IndexedList;
+import com.github.peterbecker.configuration.v1.Option;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The resolved description of a single option in a configuration interface.
+ * <p/>
+ * Everything that can be derived from the interface alone is resolved once: the kind of option, the type of the
+ * values, the default value and the parser for the value type if it is one of the default types.
+ */
+public final class OptionSchema {
+    /**
+     * The different shapes an option can have.
+     */
+    public enum Kind {
+        /**
+         * A single, mandatory value. Might have a default.
+         */
+        VALUE,
+        /**
+         * A single value wrapped in an {@linkplain Optional}.
+         */
+        OPTIONAL,
+        /**
+         * A list of values.
+         */
+        LIST,
+        /**
+         * A nested configuration interface.
+         */
+        NESTED,
+        /**
+         * A list of nested configuration interfaces.
+         */
+        NESTED_LIST,
+        /**
+         * A map from string keys to values.
+         */
+        MAP,
+        /**
+         * A map from string keys to nested configuration interfaces.
+         */
+        NESTED_MAP
+    }
+
+    private final Method method;
+    private final String name;
+    private final int slot;
+    private final Kind kind;
+    private final Class<?> valueType;
+    private final String defaultValue;
+    private final Function<String, ?> defaultParser;
+    private final Map<String, Object> enumConstants;
+    private final boolean indexed;
+    private final List<Method> indexMethods;
+
+    /**
+     * The default value parsed with the default parser, set lazily.
+     */
+    private volatile Object parsedDefaultValue;
+
+    OptionSchema(Method method, int slot) {
+        this.method = method;
+        this.name = method.getName();
+        this.slot = slot;
+        Class<?> returnType = method.getReturnType();
+        if (returnType.equals(List.class) || returnType.equals(IndexedList.class)) {
+            this.valueType = getTypeArgument(method, 0);
+            this.kind = valueType.isInterface() ? Kind.NESTED_LIST : Kind.LIST;
+        } else if (returnType.equals(Map.class)) {
+            this.valueType = getTypeArgument(method, 1);
+            this.kind = valueType.isInterface() ? Kind.NESTED_MAP : Kind.MAP;
+        } else if (returnType.equals(Optional.class)) {
+            this.valueType = getTypeArgument(method, 0);
+            this.kind = Kind.OPTIONAL;
+        } else {
+            this.valueType = returnType;
+            this.kind = returnType.isInterface() ? Kind.NESTED : Kind.VALUE;
+        }
+        Option optionAnnotation = method.getAnnotation(Option.class);
+        if (optionAnnotation != null && !optionAnnotation.defaultValue().equals(Option.NOT_SET)) {
+            this.defaultValue = optionAnnotation.defaultValue();
+        } else {
+            this.defaultValue = null;
+        }
+        this.defaultParser = InterfaceParser.DEFAULT_VALUE_PARSERS.get(valueType);
+        this.enumConstants = valueType.isEnum() ? getEnumConstants(valueType) : null;
+        String[] indexedBy = optionAnnotation == null ? new String[0] : optionAnnotation.indexedBy();
+        this.indexed = kind == Kind.NESTED_LIST && (returnType.equals(IndexedList.class) || indexedBy.length > 0);
+        this.indexMethods = indexed ? getIndexMethods(valueType, indexedBy) : Collections.emptyList();
+    }
+
+    private static List<Method> getIndexMethods(Class<?> elementType, String[] indexedBy) {
+        List<Method> methods = new ArrayList<>(indexedBy.length);
+        for (String name : indexedBy) {
+            try {
+                Method method = elementType.getMethod(name);
+                method.setAccessible(true);
+                methods.add(method);
+            } catch (NoSuchMethodException e) {
+                // checked when the schema is created
+                throw new IllegalStateException("No option " + name + " in " + elementType.getName(), e);
+            }
+        }
+        return Collections.unmodifiableList(methods);
+    }
+
+    static Class<?> getTypeArgument(Method method, int index) {
+        Type type = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[index];
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return (Class<?>) type;
+    }
+
+    private static Map<String, Object> getEnumConstants(Class<?> enumType) {
+        Map<String, Object> constants = new HashMap<>();
+        for (Object constant : enumType.getEnumConstants()) {
+            constants.put(((Enum<?>) constant).name(), constant);
+        }
+        return Collections.unmodifiableMap(constants);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The index of the option in the values of the configuration object.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Checks if the values of the option are nested configuration objects, single or in a list or map.
+     */
+    public boolean isNested() {
+        return kind == Kind.NESTED || kind == Kind.NESTED_LIST || kind == Kind.NESTED_MAP;
+    }
+
+    /**
+     * The type of the value, for lists and {@linkplain Optional} the type of the elements, for maps the type of the
+     * values.
+     */
+    public Class<?> getValueType() {
+        return valueType;
+    }
+
+    public Optional<String> getDefaultValue() {
+        return Optional.ofNullable(defaultValue);
+    }
+
+    /**
+     * Checks if the value is an {@linkplain IndexedList}, i.e. if the option is a list of nested interfaces that is
+     * declared as such or has indexes.
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * The options of the nested interface the list is indexed by, see {@linkplain Option#indexedBy()}.
+     */
+    public List<Method> getIndexMethods() {
+        return indexMethods;
+    }
+
+    /**
+     * Checks that a value of this option can be parsed.
+     */
+    void checkParser(Map<Class<?>, Function<String, ?>> additionalValueParsers) throws ConfigurationException {
+        if (defaultParser == null && enumConstants == null && !additionalValueParsers.containsKey(valueType)) {
+            throw missingParser();
+        }
+    }
+
+    private ConfigurationException missingParser() {
+        return new ConfigurationException(
+                String.format(
+                        "Can not parse type %s used in return value of %s#%s()",
+                        valueType.getName(),
+                        method.getDeclaringClass().getName(),
+                        name
+                )
+        );
+    }
+
+    /**
+     * Parses a value for this option, using the additional parsers if one for the value type is present.
+     */
+    Object parse(String value, Map<Class<?>, Function<String, ?>> additionalValueParsers) throws ConfigurationException {
+        Function<String, ?> parser = additionalValueParsers.get(valueType);
+        if (parser == null) {
+            parser = defaultParser;
+        }
+        if (parser != null) {
+            try {
+                return parser.apply(value);
+            } catch (RuntimeException e) {
+                FlightRecorderEvents.valueParseFailed(valueType, name, e.getClass().getName());
+                throw e;
+            }
+        }
+        if (enumConstants != null) {
+            Object constant = enumConstants.get(value);
+            if (constant == null) {
+                FlightRecorderEvents.valueParseFailed(valueType, name, "No enum constant");
+                throw new ConfigurationException("Can not find value " + value + " for enum " + valueType.getCanonicalName());
+            }
+            return constant;
+        }
+        throw missingParser();
+    }
+
+    /**
+     * Returns the parsed default value, throwing an exception if there is none.
+     * <p/>
+     * If the default parser is used, the parsed value is cached since all default value types are immutable.
+     */
+    Object getParsedDefaultValue(Map<Class<?>, Function<String, ?>> additionalValueParsers) throws ConfigurationException {
+        if (defaultValue == null) {
+            throw new ConfigurationException("No value provided for mandatory option " + name);
+        }
+        if (!InterfaceParser.usesDefaultParser(valueType, additionalValueParsers)) {
+            return parse(defaultValue, additionalValueParsers);
+        }
+        Object result = parsedDefaultValue;
+        if (result == null) {
+            result = parse(defaultValue, additionalValueParsers);
+            parsedDefaultValue = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only lists of numbers backed by primitive arrays.
+ * <p/>
+ * List options with the element types {@linkplain Integer}, {@linkplain Long} and {@linkplain Double} are stored in
+ * these lists unless an additional value parser for the element type is registered. This avoids one object per element.
+ * The lists are only boxing on access through the {@linkplain List} interface, the typed accessors like
+ * {@linkplain IntList#getInt(int)} return the primitive values directly. Like the lists of all other element types they
+ * can not be modified.
+ */
+public final class PrimitiveLists {
+    private PrimitiveLists() {
+        // static methods only
+    }
+
+    /**
+     * Checks if values of the type given are stored in primitive lists when parsed with the default parser.
+     */
+    static boolean isSupported(Class<?> elementType) {
+        return elementType == Integer.class || elementType == Long.class || elementType == Double.class;
+    }
+
+    /**
+     * Parses the values into a primitive list, the element type has to be {@linkplain #isSupported(Class) supported}.
+     */
+    static List<?> parse(Class<?> elementType, String optionName, List<String> values) {
+        try {
+            return parse(elementType, values);
+        } catch (NumberFormatException e) {
+            FlightRecorderEvents.valueParseFailed(elementType, optionName, e.getClass().getName());
+            throw e;
+        }
+    }
+
+    private static List<?> parse(Class<?> elementType, List<String> values) {
+        int size = values.size();
+        if (elementType == Integer.class) {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = Integer.parseInt(values.get(i));
+            }
+            return new IntList(result);
+        }
+        if (elementType == Long.class) {
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = Long.parseLong(values.get(i));
+            }
+            return new LongList(result);
+        }
+        if (elementType == Double.class) {
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = Double.parseDouble(values.get(i));
+            }
+            return new DoubleList(result);
+        }
+        throw new IllegalArgumentException("No primitive list for " + elementType.getName());
+    }
+
+    public static final class IntList extends AbstractList<Integer> implements RandomAccess {
+        private final int[] values;
+
+        IntList(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        public int getInt(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public int[] toIntArray() {
+            return values.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof IntList) {
+                return Arrays.equals(values, ((IntList) o).values);
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    public static final class LongList extends AbstractList<Long> implements RandomAccess {
+        private final long[] values;
+
+        LongList(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Long get(int index) {
+            return values[index];
+        }
+
+        public long getLong(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public long[] toLongArray() {
+            return values.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof LongList) {
+                return Arrays.equals(values, ((LongList) o).values);
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    public static final class DoubleList extends AbstractList<Double> implements RandomAccess {
+        private final double[] values;
+
+        DoubleList(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Double get(int index) {
+            return values[index];
+        }
+
+        public double getDouble(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public double[] toDoubleArray() {
+            return values.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof DoubleList) {
+                return Arrays.equals(values, ((DoubleList) o).values);
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.peterbecker.configuration.parser;
+
+import com.github.peterbecker.configuration.ConfigurationMetricsListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A value parser reporting the time taken to a metrics listener.
+ */
+public final class TimedValueParser<T> implements Function<String, T>, DelegatingValueParser {
+    private final Class<?> valueType;
+    private final Function<String, T> delegate;
+    private final ConfigurationMetricsListener listener;
+
+    private TimedValueParser(Class<?> valueType, Function<String, T> delegate, ConfigurationMetricsListener listener) {
+        this.valueType = valueType;
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the default and additional value parsers, all wrapped to report to the listener.
+     */
+    public static Map<Class<?>, Function<String, ?>> wrapAll(Map<Class<?>, Function<String, ?>> additionalValueParsers,
+                                                           ConfigurationMetricsListener listener) {
+        Map<Class<?>, Function<String, ?>> result = new HashMap<>();
+        for (Map.Entry<Class<?>, Function<String, ?>> entry : InterfaceParser.DEFAULT_VALUE_PARSERS.entrySet()) {
+            result.put(entry.getKey(), new TimedValueParser<>(entry.getKey(), entry.getValue(), listener));
+        }
+        for (Map.Entry<Class<?>, Function<String, ?>> entry : additionalValueParsers.entrySet()) {
+            result.put(entry.getKey(), new TimedValueParser<>(entry.getKey(), entry.getValue(), listener));
+        }
+        return result;
+    }
+
+    @Override
+    public Function<String, ?> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public T apply(String value) {
+        long start = System.nanoTime();
+        try {
+            return delegate.apply(value);
+        } finally {
+            listener.valueParsed(valueType, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.peterbecker.configuration.parser;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of parsed values, which replaces each value with an equal one seen before, so that options repeating the
+ * same value share a single object.
+ * <p/>
+ * Only values of immutable types are pooled: strings, the boxed primitives, {@linkplain BigInteger},
+ * {@linkplain BigDecimal}, the <code>java.time</code> types, {@linkplain URI} and {@linkplain UUID}. Values of other
+ * types are returned as they are, unless their type has been declared immutable with
+ * {@linkplain #withImmutableType(Class)}.
+ * <p/>
+ * The pool only holds weak references, so values no longer used by any configuration can be garbage collected. This
+ * allows using the same interner for all loads and reloads, in which case values unchanged by a reload are shared
+ * with the previous configuration. Interners are thread safe.
+ */
+public final class ValueInterner {
+    private static final int STRIPES = 16;
+
+    private static final Set<Class<?>> DEFAULT_IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Byte.class, Short.class, Character.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class,
+            Duration.class, Instant.class, LocalDate.class, LocalDateTime.class, LocalTime.class, MonthDay.class,
+            OffsetDateTime.class, OffsetTime.class, Period.class, Year.class, YearMonth.class, ZonedDateTime.class,
+            URI.class, UUID.class
+    ));
+
+    private final Set<Class<?>> immutableTypes = new CopyOnWriteArraySet<>();
+    @SuppressWarnings("unchecked")
+    private final WeakHashMap<Object, WeakReference<Object>>[] pools = new WeakHashMap[STRIPES];
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public ValueInterner() {
+        for (int i = 0; i < STRIPES; i++) {
+            pools[i] = new WeakHashMap<>();
+        }
+    }
+
+    /**
+     * Declares values of the type given as immutable, so that they are pooled as well. Instances must implement
+     * <code>equals</code> and <code>hashCode</code> based on their value and must never change.
+     */
+    public ValueInterner withImmutableType(Class<?> type) {
+        immutableTypes.add(type);
+        return this;
+    }
+
+    /**
+     * Returns an equal value seen before if there is one, otherwise the value given, which is remembered from now on.
+     * Values of types not considered immutable and <code>null</code> are returned unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value) {
+        if (value == null || !isImmutable(value.getClass())) {
+            return value;
+        }
+        lookups.increment();
+        WeakHashMap<Object, WeakReference<Object>> pool = pools[(value.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (pool) {
+            WeakReference<Object> reference = pool.get(value);
+            Object pooled = reference == null ? null : reference.get();
+            if (pooled != null) {
+                hits.increment();
+                bytesSaved.add(estimateSize(value));
+                return (T) pooled;
+            }
+            pool.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    private boolean isImmutable(Class<?> type) {
+        return DEFAULT_IMMUTABLE_TYPES.contains(type) || ZoneId.class.isAssignableFrom(type)
+                || immutableTypes.contains(type);
+    }
+
+    /**
+     * The statistics collected since the interner was created.
+     */
+    public Statistics getStatistics() {
+        int pooled = 0;
+        for (WeakHashMap<Object, WeakReference<Object>> pool : pools) {
+            synchronized (pool) {
+                pooled += pool.size();
+            }
+        }
+        return new Statistics(lookups.sum(), hits.sum(), pooled, bytesSaved.sum());
+    }
+
+    /**
+     * A rough estimate of the heap occupied by a value, assuming a 64 bit JVM with compressed references and compact
+     * strings.
+     */
+    static long estimateSize(Object value) {
+        if (value instanceof String) {
+            String s = (String) value;
+            boolean latin1 = true;
+            for (int i = 0; i < s.length() && latin1; i++) {
+                latin1 = s.charAt(i) < 256;
+            }
+            return 24 + align(16 + (long) s.length() * (latin1 ? 1 : 2));
+        }
+        if (value instanceof Long || value instanceof Double) {
+            return 24;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return value instanceof BigInteger || value instanceof BigDecimal ? 64 : 16;
+        }
+        if (value instanceof LocalDateTime || value instanceof OffsetTime) {
+            return 72;
+        }
+        if (value instanceof OffsetDateTime || value instanceof ZonedDateTime) {
+            return 96;
+        }
+        return 24;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * The effect of an interner so far.
+     */
+    public static final class Statistics {
+        private final long lookups;
+        private final long deduplicated;
+        private final int pooledValues;
+        private final long estimatedBytesSaved;
+
+        private Statistics(long lookups, long deduplicated, int pooledValues, long estimatedBytesSaved) {
+            this.lookups = lookups;
+            this.deduplicated = deduplicated;
+            this.pooledValues = pooledValues;
+            this.estimatedBytesSaved = estimatedBytesSaved;
+        }
+
+        /**
+         * The number of values of immutable types passed to the interner.
+         */
+        public long getLookups() {
+            return lookups;
+        }
+
+        /**
+         * The number of values replaced with an equal value from the pool.
+         */
+        public long getDeduplicated() {
+            return deduplicated;
+        }
+
+        /**
+         * The number of distinct values currently in the pool, including values not yet garbage collected.
+         */
+        public int getPooledValues() {
+            return pooledValues;
+        }
+
+        /**
+         * The estimated heap occupied by the values replaced, see {@linkplain ValueInterner#estimateSize(Object)}.
+         */
+        public long getEstimatedBytesSaved() {
+            return estimatedBytesSaved;
+        }
+
+        @Override
+        public String toString() {
+            return "lookups=" + lookups + ", deduplicated=" + deduplicated + ", pooledValues=" + pooledValues
+                    + ", estimatedBytesSaved=" + estimatedBytesSaved;
+        }
+    }
+}
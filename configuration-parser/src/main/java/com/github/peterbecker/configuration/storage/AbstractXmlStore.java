@@ -0,0 +1,173 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Common lookup logic for the XML stores.
+ * <p/>
+ * Elements are identified by paths where each segment is the element name followed by '#' and the position among the
+ * siblings of the same name, e.g. <code>/nested#1/stringValues#0</code>. The root element has the empty path and can
+ * have any name. Options are looked up as child elements of the context element first, then as attributes.
+ */
+abstract class AbstractXmlStore implements Store {
+    /**
+     * Renders keys as element paths, non-indexed keys refer to the first element.
+     */
+    private static final Key.PathFormat ELEMENT_PATHS = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            return contextPath + "/" + key.getOptionName() + "#" + Math.max(key.getIndex(), 0);
+        }
+    };
+
+    /**
+     * Renders keys as the path of the context element plus the name, as used in {@linkplain #counts}.
+     */
+    private static final Key.PathFormat COUNT_KEYS = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            // the context is an element, so it is rendered as element path rather than as count key
+            String contextElementPath = key.isTopLevel() ? "" : key.getContext().getPath(ELEMENT_PATHS);
+            return contextElementPath + "/" + key.getOptionName();
+        }
+    };
+
+    /**
+     * The number of child elements with a given name, indexed by the path of the parent plus '/' and the name.
+     */
+    protected final Map<String, Integer> counts = new HashMap<>();
+
+    /**
+     * The names of the child elements by the path of the parent, derived from {@linkplain #counts} on first use.
+     */
+    private volatile Map<String, Set<String>> childNames;
+
+    /**
+     * Returns the text content of the element at the path given, which is known to exist.
+     */
+    protected abstract String getText(String path);
+
+    /**
+     * Returns the value of the attribute of the element at the path given, null if the attribute is not set.
+     */
+    protected abstract String getAttribute(String path, String name);
+
+    /**
+     * Returns the names of the attributes of the element at the path given, which is known to exist.
+     */
+    protected abstract Collection<String> getAttributeNames(String path);
+
+    /**
+     * Registers a child element and returns its path.
+     */
+    protected String addElement(String parentPath, String name) {
+        String countKey = parentPath + "/" + name;
+        int position = counts.merge(countKey, 1, Integer::sum) - 1;
+        return countKey + "#" + position;
+    }
+
+    @Override
+    public Optional<String> getValue(Key key) throws ConfigurationException {
+        if (!hasElement(key.getContext())) {
+            return Optional.empty();
+        }
+        int count = counts.getOrDefault(key.getPath(COUNT_KEYS), 0);
+        if (key.isIndexed()) {
+            if (key.getIndex() >= count) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(getText(key.getPath(ELEMENT_PATHS)));
+        }
+        if (count > 1) {
+            throw new ConfigurationException("More than one node matches " + key.getPath(COUNT_KEYS));
+        }
+        if (count == 1) {
+            return Optional.ofNullable(getText(key.getPath(ELEMENT_PATHS)));
+        }
+        String contextPath = key.isTopLevel() ? "" : key.getContext().getPath(ELEMENT_PATHS);
+        return Optional.ofNullable(getAttribute(contextPath, key.getOptionName()));
+    }
+
+    @Override
+    public OptionalInt getListSize(Key key) throws ConfigurationException {
+        if (!hasElement(key.getContext())) {
+            return OptionalInt.of(0);
+        }
+        return OptionalInt.of(counts.getOrDefault(key.getPath(COUNT_KEYS), 0));
+    }
+
+    /**
+     * Returns the names of the child elements and attributes of the element referenced by the key.
+     */
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) throws ConfigurationException {
+        if (!hasElement(key)) {
+            return Optional.of(Collections.emptySet());
+        }
+        Map<String, Set<String>> names = childNames;
+        if (names == null) {
+            names = computeChildNames();
+            childNames = names;
+        }
+        String path = key.getPath(ELEMENT_PATHS);
+        Set<String> elementNames = names.getOrDefault(path, Collections.emptySet());
+        Collection<String> attributeNames = getAttributeNames(path);
+        if (attributeNames.isEmpty()) {
+            return Optional.of(elementNames);
+        }
+        Set<String> result = new LinkedHashSet<>(elementNames);
+        result.addAll(attributeNames);
+        return Optional.of(result);
+    }
+
+    private Map<String, Set<String>> computeChildNames() {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (String countKey : counts.keySet()) {
+            // element names can not contain slashes, so the last one separates the parent path from the name
+            int separator = countKey.lastIndexOf('/');
+            result.computeIfAbsent(countKey.substring(0, separator), k -> new HashSet<>())
+                    .add(countKey.substring(separator + 1));
+        }
+        for (Map.Entry<String, Set<String>> entry : result.entrySet()) {
+            entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Checks if there is an element referenced by the key, throwing an exception if the reference is ambiguous.
+     */
+    private boolean hasElement(Key key) throws ConfigurationException {
+        if (key == Key.ROOT) {
+            return true;
+        }
+        if (!hasElement(key.getContext())) {
+            return false;
+        }
+        int count = counts.getOrDefault(key.getPath(COUNT_KEYS), 0);
+        if (!key.isIndexed() && count > 1) {
+            throw new ConfigurationException("More than one node matches " + key.getPath(COUNT_KEYS));
+        }
+        return Math.max(key.getIndex(), 0) < count;
+    }
+}
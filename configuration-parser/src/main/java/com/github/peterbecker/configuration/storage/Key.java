@@ -1,28 +1,136 @@
 package com.github.peterbecker.configuration.storage;
 
-import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A reference into a configuration store.
+ * <p/>
+ * Keys are immutable and cache their hash code. Keys created through {@linkplain #of(Key, String, int)} are interned
+ * per context, so the same key object is used for every load, and paths rendered from them by a
+ * {@linkplain PathFormat} are only built once.
+ * <p/>
+ * Interning is limited to what the configuration interfaces define, so that the interned keys do not grow with the
+ * content of the stores: option names, and list positions up to {@value #MAX_INTERNED_INDEX}. Keys for map entries,
+ * whose names come from the store, are created through {@linkplain #entry(Key, String)} and are not interned, neither
+ * are keys for later list positions. Keys below such a key are interned on it, so they live only as long as it does.
  */
-@Data
 public class Key {
+    /**
+     * The number of list positions interned per key, later positions get new keys on every call.
+     */
+    public static final int MAX_INTERNED_INDEX = 256;
+
+    private static final ConcurrentMap<String, Key> TOP_LEVEL_KEYS = new ConcurrentHashMap<>();
+
     /**
      * The sequence of nestings that contextualizes the option. Null for root values.
      */
+    @Getter
     private final Key context;
 
     /**
      * The name of the option in the configuration interface.
      */
+    @Getter
     private final @NonNull String optionName;
 
     /**
      * The position within a list. Set to -1 for single values.
      */
+    @Getter
     private final int index;
 
+    private final int hash;
+
+    /**
+     * The interned children of this key that are not indexed, created on first use.
+     */
+    private volatile ConcurrentMap<String, Key> children;
+
+    /**
+     * The interned indexed versions of this key, created on first use.
+     */
+    private volatile Key[] elements;
+
+    /**
+     * The rendered paths, indexed by {@linkplain PathFormat#id}. Racy, a path might be rendered more than once.
+     */
+    private volatile String[] paths;
+
+    public Key(Key context, @NonNull String optionName, int index) {
+        this.context = context;
+        this.optionName = optionName;
+        this.index = index;
+        this.hash = (Objects.hashCode(context) * 31 + optionName.hashCode()) * 31 + index;
+    }
+
+    /**
+     * Returns the interned key with the values given.
+     *
+     * @param optionName the name of an option in a configuration interface, never a name read from a store
+     */
+    public static Key of(Key context, @NonNull String optionName, int index) {
+        ConcurrentMap<String, Key> siblings = context == ROOT ? TOP_LEVEL_KEYS : context.getChildren();
+        Key key = siblings.get(optionName);
+        if (key == null) {
+            key = siblings.computeIfAbsent(optionName, name -> new Key(context, name, -1));
+        }
+        return index < 0 ? key : key.getElement(index);
+    }
+
+    /**
+     * Returns a key for an entry of a map option, which is not interned since the entry names come from the store.
+     */
+    public static Key entry(Key mapKey, @NonNull String entryName) {
+        return new Key(mapKey, entryName, -1);
+    }
+
+    private ConcurrentMap<String, Key> getChildren() {
+        ConcurrentMap<String, Key> result = children;
+        if (result == null) {
+            synchronized (this) {
+                result = children;
+                if (result == null) {
+                    result = new ConcurrentHashMap<>();
+                    children = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Key getElement(int index) {
+        if (index >= MAX_INTERNED_INDEX) {
+            return new Key(context, optionName, index);
+        }
+        Key[] current = elements;
+        if (current != null && index < current.length) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = elements;
+            if (current == null || index >= current.length) {
+                int oldLength = current == null ? 0 : current.length;
+                Key[] grown = current == null
+                        ? new Key[Math.max(index + 1, 8)]
+                        : Arrays.copyOf(current, Math.min(Math.max(index + 1, oldLength * 2), MAX_INTERNED_INDEX));
+                for (int i = oldLength; i < grown.length; i++) {
+                    grown[i] = new Key(context, optionName, i);
+                }
+                elements = grown;
+                current = grown;
+            }
+            return current[index];
+        }
+    }
+
     public boolean isIndexed() {
         return index >= 0;
     }
@@ -35,4 +143,69 @@ public class Key {
     public boolean isTopLevel() {
         return context == Key.ROOT;
     }
+
+    /**
+     * Returns the path of this key in the format given, rendering it on first use.
+     */
+    public String getPath(PathFormat format) {
+        String[] current = paths;
+        if (current != null && format.id < current.length && current[format.id] != null) {
+            return current[format.id];
+        }
+        String contextPath = isTopLevel() ? format.getRootPath() : context.getPath(format);
+        String path = format.render(contextPath, this);
+        current = paths;
+        String[] updated = current == null
+                ? new String[format.id + 1]
+                : Arrays.copyOf(current, Math.max(current.length, format.id + 1));
+        updated[format.id] = path;
+        paths = updated;
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Key)) {
+            return false;
+        }
+        Key other = (Key) o;
+        return hash == other.hash
+                && index == other.index
+                && optionName.equals(other.optionName)
+                && Objects.equals(context, other.context);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "Key(context=" + context + ", optionName=" + optionName + ", index=" + index + ")";
+    }
+
+    /**
+     * The way a store turns keys into its own path strings.
+     * <p/>
+     * Formats should be held in constants, each instance takes a slot in the path cache of every key it renders.
+     */
+    public abstract static class PathFormat {
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        private final int id = NEXT_ID.getAndIncrement();
+
+        /**
+         * The path used as context for top level keys.
+         */
+        protected abstract String getRootPath();
+
+        /**
+         * Renders the path of a key, given the already rendered path of its context.
+         */
+        protected abstract String render(String contextPath, Key key);
+    }
 }
@@ -1,24 +1,66 @@
 package com.github.peterbecker.configuration.storage;
 
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+
 import lombok.NonNull;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * A Store implemented through a Properties object.
  */
 public class PropertiesStore implements Store {
+    /**
+     * Renders keys as dotted property names, e.g. <code>nested.3.value</code>.
+     */
+    private static final Key.PathFormat PROPERTY_KEYS = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            String propKey = contextPath.isEmpty() ? key.getOptionName() : contextPath + "." + key.getOptionName();
+            return key.isIndexed() ? propKey + "." + key.getIndex() : propKey;
+        }
+    };
+
     private final
     @NonNull
     Properties properties;
 
+    /**
+     * The sizes of all lists, indexed by the property key of the list option. Created on first use.
+     */
+    private volatile Map<String, Integer> listSizes;
+
+    /**
+     * The names of the segments directly below each property key prefix, e.g. <code>a</code> and <code>b</code> for
+     * <code>timeouts</code> if there are properties <code>timeouts.a</code> and <code>timeouts.b.c</code>. Created on
+     * first use.
+     */
+    private volatile Map<String, Set<String>> children;
+
     public PropertiesStore(Path resource) throws IOException {
         this.properties = new Properties();
-        properties.load(Files.newInputStream(resource));
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(PropertiesStore.class, resource);
+             InputStream in = Files.newInputStream(resource)) {
+            properties.load(in);
+        }
     }
 
     public PropertiesStore(Properties properties) {
@@ -30,16 +72,90 @@ public class PropertiesStore implements Store {
         return Optional.ofNullable(properties.getProperty(getPropertyKey(key)));
     }
 
-    private String getPropertyKey(Key key) {
-        String propKey;
-        if (key.isTopLevel()) {
-            propKey = key.getOptionName();
-        } else {
-            propKey = getPropertyKey(key.getContext()) + "." + key.getOptionName();
+    /**
+     * Returns the list size based on the indexed property keys.
+     * <p/>
+     * All list sizes are determined in a single pass over the property names the first time a list size is
+     * requested. Changes to the underlying properties after that point are not reflected in the list sizes.
+     */
+    @Override
+    public OptionalInt getListSize(Key key) {
+        Map<String, Integer> sizes = listSizes;
+        if (sizes == null) {
+            sizes = computeListSizes();
+            listSizes = sizes;
+        }
+        return OptionalInt.of(sizes.getOrDefault(getPropertyKey(key), 0));
+    }
+
+    private Map<String, Integer> computeListSizes() {
+        Map<String, BitSet> indexes = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            int segmentStart = name.indexOf('.') + 1;
+            while (segmentStart > 0) {
+                int segmentEnd = name.indexOf('.', segmentStart);
+                String segment = segmentEnd < 0 ? name.substring(segmentStart) : name.substring(segmentStart, segmentEnd);
+                if (isIndex(segment)) {
+                    indexes.computeIfAbsent(name.substring(0, segmentStart - 1), k -> new BitSet())
+                            .set(Integer.parseInt(segment));
+                }
+                segmentStart = segmentEnd + 1;
+            }
+        }
+        Map<String, Integer> sizes = new HashMap<>();
+        for (Map.Entry<String, BitSet> entry : indexes.entrySet()) {
+            // lists end at the first missing index, anything after that is ignored
+            sizes.put(entry.getKey(), entry.getValue().nextClearBit(0));
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the map keys based on the property names: every segment following the property key of the map option.
+     * Map keys therefore can not contain dots.
+     * <p/>
+     * As with list sizes, all property names are indexed in a single pass the first time map keys are requested.
+     */
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) {
+        Map<String, Set<String>> index = children;
+        if (index == null) {
+            index = computeChildren();
+            children = index;
+        }
+        return Optional.of(index.getOrDefault(getPropertyKey(key), Collections.emptySet()));
+    }
+
+    private Map<String, Set<String>> computeChildren() {
+        Map<String, Set<String>> result = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            int separator = name.indexOf('.');
+            while (separator >= 0) {
+                int segmentEnd = name.indexOf('.', separator + 1);
+                String segment = segmentEnd < 0 ? name.substring(separator + 1) : name.substring(separator + 1, segmentEnd);
+                result.computeIfAbsent(name.substring(0, separator), k -> new HashSet<>()).add(segment);
+                separator = segmentEnd;
+            }
         }
-        if(key.isIndexed()) {
-            propKey += "." + key.getIndex();
+        for (Map.Entry<String, Set<String>> entry : result.entrySet()) {
+            entry.setValue(Collections.unmodifiableSet(entry.getValue()));
         }
-        return propKey;
+        return result;
+    }
+
+    private static boolean isIndex(String segment) {
+        if (segment.isEmpty() || segment.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getPropertyKey(Key key) {
+        return key.getPath(PROPERTY_KEYS);
     }
 }
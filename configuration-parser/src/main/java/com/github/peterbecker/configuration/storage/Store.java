@@ -3,11 +3,58 @@ package com.github.peterbecker.configuration.storage;
 import com.github.peterbecker.configuration.ConfigurationException;
 import lombok.NonNull;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 /**
  * A place where configuration data is stored.
  */
 public interface Store {
     Optional<String> getValue(@NonNull Key key) throws ConfigurationException; // TODO: decided if we switch to JSR-305
+
+    /**
+     * Retrieves the values for a number of keys at once.
+     * <p/>
+     * The parser requests all values of one nesting level in a single call, stores with a cost per lookup (e.g. a
+     * query) can override this to answer all of them at once. The default implementation calls
+     * {@linkplain #getValue(Key)} for each key.
+     *
+     * @return the values found, keys without value are not contained
+     */
+    default Map<Key, String> getValues(@NonNull Collection<Key> keys) throws ConfigurationException {
+        Map<Key, String> result = new HashMap<>();
+        for (Key key : keys) {
+            Optional<String> value = getValue(key);
+            if (value.isPresent()) {
+                result.put(key, value.get());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements of a list option, if the store can determine it directly.
+     * <p/>
+     * The key refers to the option as a whole, i.e. it is not indexed. Missing options have size zero. If the store
+     * can not tell, an empty result is returned and the parser probes the indexes until no element is found.
+     */
+    default OptionalInt getListSize(@NonNull Key key) throws ConfigurationException {
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Returns the keys of the entries of a map option.
+     * <p/>
+     * The key refers to the option as a whole, the entries are the keys nested directly below it, e.g. for the
+     * properties <code>timeouts.read=5</code> and <code>timeouts.write=10</code> the keys of <code>timeouts</code> are
+     * <code>read</code> and <code>write</code>. Missing options have no entries. If the store can not enumerate the
+     * entries, an empty result is returned and map options can not be read from it.
+     */
+    default Optional<Set<String>> getMapKeys(@NonNull Key key) throws ConfigurationException {
+        return Optional.empty();
+    }
 }
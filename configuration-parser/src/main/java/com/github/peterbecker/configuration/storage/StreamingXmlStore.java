@@ -0,0 +1,125 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Store reading XML files in a single streaming pass.
+ * <p/>
+ * Other than the {@linkplain XmlStore} no DOM is kept, only a flat index from element paths to their text and from
+ * element paths plus attribute names to the attribute values. Lookups behave the same as in the {@linkplain XmlStore},
+ * except that elements containing other elements only have the text directly inside them as value, and only if it is
+ * not just whitespace.
+ */
+public class StreamingXmlStore extends AbstractXmlStore {
+    /**
+     * Element texts indexed by the element path, attribute values by the element path plus '@' and the name.
+     */
+    private final Map<String, String> values = new HashMap<>();
+    /**
+     * The attribute names by element path, elements without attributes are not contained.
+     */
+    private final Map<String, List<String>> attributeNames = new HashMap<>();
+
+    public StreamingXmlStore(Path resource) throws IOException {
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(StreamingXmlStore.class, resource);
+             InputStream in = Files.newInputStream(resource)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            try {
+                index(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse XML file.", e);
+        }
+    }
+
+    private void index(XMLStreamReader reader) throws XMLStreamException {
+        Deque<String> paths = new ArrayDeque<>();
+        Deque<StringBuilder> texts = new ArrayDeque<>();
+        boolean leaf = false;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    String path = paths.isEmpty() ? "" : addElement(paths.peek(), getName(reader));
+                    if (reader.getAttributeCount() > 0) {
+                        List<String> names = new ArrayList<>(reader.getAttributeCount());
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            String name = getAttributeName(reader, i);
+                            values.put(path + "@" + name, reader.getAttributeValue(i));
+                            names.add(name);
+                        }
+                        attributeNames.put(path, names);
+                    }
+                    paths.push(path);
+                    texts.push(new StringBuilder());
+                    leaf = true;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (!texts.isEmpty()) {
+                        texts.peek().append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    String text = texts.pop().toString();
+                    if (leaf || !text.trim().isEmpty()) {
+                        values.put(paths.peek(), text);
+                    }
+                    paths.pop();
+                    leaf = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The qualified name of the current element, as the DOM would report it.
+     */
+    private static String getName(XMLStreamReader reader) {
+        String prefix = reader.getPrefix();
+        return prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+    }
+
+    private static String getAttributeName(XMLStreamReader reader, int index) {
+        String prefix = reader.getAttributePrefix(index);
+        String localName = reader.getAttributeLocalName(index);
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    @Override
+    protected String getText(String path) {
+        return values.get(path);
+    }
+
+    @Override
+    protected String getAttribute(String path, String name) {
+        return values.get(path + "@" + name);
+    }
+
+    @Override
+    protected Collection<String> getAttributeNames(String path) {
+        return attributeNames.getOrDefault(path, Collections.emptyList());
+    }
+}
@@ -1,74 +1,94 @@
 package com.github.peterbecker.configuration.storage;
 
-import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Optional;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A Store implemented through an XML object.
+ * <p/>
+ * On construction all elements are indexed by their path, so lookups do not need to search the document. The DOM is
+ * kept, see {@linkplain StreamingXmlStore} for a variant that does not retain it.
  */
-public class XmlStore implements Store {
-    private final Document doc;
+public class XmlStore extends AbstractXmlStore {
+    /**
+     * All elements, indexed by their path.
+     */
+    private final Map<String, Element> elements = new HashMap<>();
 
     public XmlStore(Path resource) throws IOException {
-        try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            this.doc = db.parse(Files.newInputStream(resource));
-        } catch (ParserConfigurationException e) {
-            throw new RuntimeException("Unexpected internal error.", e);
-        } catch (SAXException e) {
-            throw new IOException("Could not parse XML file.", e);
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(XmlStore.class, resource)) {
+            Document doc;
+            try (InputStream in = Files.newInputStream(resource)) {
+                DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+                DocumentBuilder db = dbf.newDocumentBuilder();
+                doc = db.parse(in);
+            } catch (ParserConfigurationException e) {
+                throw new RuntimeException("Unexpected internal error.", e);
+            } catch (SAXException e) {
+                throw new IOException("Could not parse XML file.", e);
+            }
+            index(doc.getDocumentElement());
         }
     }
 
-    @Override
-    public Optional<String> getValue(Key key) throws ConfigurationException {
-        String contextPath = getContextPath(key.getContext());
-        try {
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            NodeList nodes = (NodeList) xpath.evaluate(contextPath + "/" + getLocalPath(key), doc, XPathConstants.NODESET);
-            if (nodes.getLength() == 0) {
-                if(key.isIndexed()) {
-                    return Optional.empty();
+    private void index(Element root) {
+        elements.put("", root);
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push("");
+        while (!pending.isEmpty()) {
+            String parentPath = pending.pop();
+            Element parent = elements.get(parentPath);
+            for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() != Node.ELEMENT_NODE) {
+                    continue;
                 }
-                nodes = (NodeList) xpath.evaluate(contextPath + "/@" + key.getOptionName(), doc, XPathConstants.NODESET);
-                if (nodes.getLength() == 0) {
-                    return Optional.empty();
-                }
-            }
-            if (nodes.getLength() > 1) {
-                throw new ConfigurationException("More than one node matches " + contextPath);
+                String path = addElement(parentPath, child.getNodeName());
+                elements.put(path, (Element) child);
+                pending.push(path);
             }
-            return Optional.of(nodes.item(0).getTextContent());
-        } catch (XPathExpressionException e) {
-            throw new ConfigurationException("Can not identify node at " + contextPath, e);
         }
     }
 
-    private String getContextPath(Key key) {
-        if (key == Key.ROOT) {
-            return "/*";
-        } else {
+    @Override
+    protected String getText(String path) {
+        return elements.get(path).getTextContent();
+    }
 
-            return getContextPath(key.getContext()) + "/" + getLocalPath(key);
-        }
+    @Override
+    protected String getAttribute(String path, String name) {
+        Attr attribute = elements.get(path).getAttributeNode(name);
+        return attribute == null ? null : attribute.getValue();
     }
 
-    private String getLocalPath(Key key) {
-        return key.getOptionName() + (key.isIndexed() ? "[" + (key.getIndex() + 1) + "]" : "");
+    @Override
+    protected Collection<String> getAttributeNames(String path) {
+        NamedNodeMap attributes = elements.get(path).getAttributes();
+        List<String> names = new ArrayList<>(attributes.getLength());
+        for (int i = 0; i < attributes.getLength(); i++) {
+            names.add(attributes.item(i).getNodeName());
+        }
+        return names;
     }
 }
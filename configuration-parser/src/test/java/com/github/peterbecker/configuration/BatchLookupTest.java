@@ -0,0 +1,61 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.Key;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.Store;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchLookupTest {
+    @Test
+    public void testOneBatchPerNestingLevel() throws Exception {
+        CountingStore store = new CountingStore(new PropertiesStore(
+                Paths.get(BatchLookupTest.class.getResource("/lists.properties").toURI())));
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(store)
+                .done();
+        assertThat(config.stringValues()).containsExactly("First", "Second", "Third");
+        assertThat(config.nested().get(0).stringValues()).containsExactly("001", "007");
+        assertThat(store.singleLookups).isEqualTo(0);
+        // the top level plus one per nested list element
+        assertThat(store.batches).hasSize(3);
+        assertThat(store.batches.get(0)).contains(new Key(Key.ROOT, "intValues", 3));
+    }
+
+    private static class CountingStore implements Store {
+        private final Store delegate;
+        private final List<Collection<Key>> batches = new ArrayList<>();
+        private int singleLookups = 0;
+
+        CountingStore(Store delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Optional<String> getValue(Key key) throws ConfigurationException {
+            singleLookups++;
+            return delegate.getValue(key);
+        }
+
+        @Override
+        public Map<Key, String> getValues(Collection<Key> keys) throws ConfigurationException {
+            batches.add(keys);
+            return delegate.getValues(keys);
+        }
+
+        @Override
+        public OptionalInt getListSize(Key key) throws ConfigurationException {
+            return delegate.getListSize(key);
+        }
+    }
+}
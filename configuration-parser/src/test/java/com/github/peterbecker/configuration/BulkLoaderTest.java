@@ -0,0 +1,112 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.Store;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class BulkLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeConfig(String name, String... lines) throws Exception {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+        return file;
+    }
+
+    private static Store store(String someValue) {
+        Properties properties = new Properties();
+        properties.setProperty("someValue", someValue);
+        properties.setProperty("anotherValue", "Two");
+        return new PropertiesStore(properties);
+    }
+
+    @Test
+    public void testLoadStores() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BulkLoader<TestInterface1> loader = Configuration
+                    .loadInterface(TestInterface1.class)
+                    .inBulk()
+                    .done(executor);
+            List<Store> stores = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                stores.add(store("Value" + i));
+            }
+            List<TestInterface1> configs = loader.loadAll(stores);
+            assertThat(configs).hasSize(100);
+            for (int i = 0; i < 100; i++) {
+                assertThat(configs.get(i).someValue()).isEqualTo("Value" + i);
+            }
+            // loaders can be reused
+            assertThat(loader.loadAll(stores.subList(0, 1)).get(0).someValue()).isEqualTo("Value0");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDirectory() throws Exception {
+        Path first = writeConfig("first.properties", "someValue=One", "anotherValue=Two");
+        Path second = writeConfig("second.properties", "someValue=Three", "anotherValue=Four");
+        writeConfig("other.txt", "someValue=Five");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (BindingMode bindingMode : BindingMode.values()) {
+                Map<Path, TestInterface1> configs = Configuration
+                        .loadInterface(TestInterface1.class)
+                        .inBulk()
+                        .withBindingMode(bindingMode)
+                        .done(executor)
+                        .loadDirectory(folder.getRoot().toPath(), "*.properties", PropertiesStore::new);
+                assertThat(configs.keySet()).containsExactly(first, second);
+                assertThat(configs.get(second).someValue()).isEqualTo("Three");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailuresAreReportedTogether() throws Exception {
+        Path valid = writeConfig("valid.properties", "someValue=One", "anotherValue=Two");
+        Path incomplete = writeConfig("incomplete.properties", "someValue=One");
+        Path missing = folder.getRoot().toPath().resolve("missing.properties");
+        BulkLoader<TestInterface1> loader = Configuration
+                .loadInterface(TestInterface1.class)
+                .inBulk()
+                .done(Runnable::run);
+        try {
+            loader.loadFiles(Arrays.asList(valid, incomplete, missing), PropertiesStore::new);
+            fail("Failures not reported");
+        } catch (BulkLoadException e) {
+            assertThat(e.getFailures().keySet()).containsExactly(incomplete.toString(), missing.toString());
+            assertThat(e.getSuppressed()).hasSize(2);
+            assertThat(e.getMessage()).startsWith("2 of 3 configurations");
+        }
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testInvalidInterfaceIsDetectedEarly() throws Exception {
+        Configuration
+                .loadInterface(MapOptionTest.IntegerKeyTestInterface.class)
+                .inBulk()
+                .done(Runnable::run);
+    }
+}
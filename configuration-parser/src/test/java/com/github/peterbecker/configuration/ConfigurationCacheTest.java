@@ -0,0 +1,153 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.PrimitiveLists;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.StoreFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConfigurationCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger storesCreated = new AtomicInteger();
+    private final AtomicInteger valuesParsed = new AtomicInteger();
+
+    private final StoreFactory countingFactory = file -> {
+        storesCreated.incrementAndGet();
+        return new PropertiesStore(file);
+    };
+
+    private Path writeConfig(String... lines) throws Exception {
+        Path file = folder.getRoot().toPath().resolve("config.properties");
+        Files.write(file, Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+        return file;
+    }
+
+    private Path getCacheFile() {
+        return folder.getRoot().toPath().resolve("cache/config.cache");
+    }
+
+    private <T> T load(Class<T> configurationInterface, Path file) throws ConfigurationException {
+        return Configuration
+                .loadInterface(configurationInterface)
+                .fromFile(file, countingFactory)
+                .withValueParser(SpecialValueType.class, s -> {
+                    valuesParsed.incrementAndGet();
+                    return SpecialValueType.fromInt(Integer.parseInt(s));
+                })
+                .withCache(getCacheFile())
+                .done();
+    }
+
+    @Test
+    public void testUnchangedFileIsRestored() throws Exception {
+        Path file = writeConfig(
+                "intValues.0=7", "intValues.1=5",
+                "stringValues.0=First",
+                "dates.0=1988-10-21",
+                "nested.0.nestedInt=456", "nested.0.nestedDate=2001-12-24", "nested.0.nestedOptionalTruth=true",
+                "nested.1.nestedInt=123", "nested.1.nestedDate=2001-12-31"
+        );
+        ListTestInterface first = load(ListTestInterface.class, file);
+        assertThat(storesCreated.get()).isEqualTo(1);
+        assertThat(Files.exists(getCacheFile())).isTrue();
+
+        ListTestInterface second = load(ListTestInterface.class, file);
+        assertThat(storesCreated.get()).isEqualTo(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.intValues()).containsExactly(7, 5).isInstanceOf(PrimitiveLists.IntList.class);
+        assertThat(second.stringValues()).containsExactly("First");
+        assertThatThrownBy(() -> second.stringValues().add("Second"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(second.dates()).containsExactly(LocalDate.of(1988, 10, 21));
+        assertThat(second.nested()).hasSize(2);
+        assertThat(second.nested().get(0).nestedOptionalTruth()).isEqualTo(Optional.of(true));
+        assertThat(second.nested().get(1).nestedInt()).isEqualTo(123);
+        assertThat(second.nested().get(1).nestedOptionalTruth()).isEqualTo(Optional.empty());
+        assertThat(second.nested().get(1).stringValues()).isEmpty();
+    }
+
+    @Test
+    public void testValueParsersAreNotRunOnRestore() throws Exception {
+        Path file = writeConfig("test1=1", "test2=2", "test4=4", "test5=0");
+        load(SpecialValueTypeTestInterface.class, file);
+        int parsed = valuesParsed.get();
+        SpecialValueTypeTestInterface config = load(SpecialValueTypeTestInterface.class, file);
+        assertThat(valuesParsed.get()).isEqualTo(parsed);
+        assertThat(config.test2()).isEqualTo(SpecialValueType.TWO);
+        assertThat(config.test3()).isEqualTo(Optional.empty());
+        assertThat(config.test5()).isEqualTo(SpecialValueType.NOT_SO_MANY);
+    }
+
+    @Test
+    public void testChangedFileIsParsed() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        load(TestInterface1.class, file);
+        writeConfig("someValue=Three", "anotherValue=Two");
+        TestInterface1 config = load(TestInterface1.class, file);
+        assertThat(storesCreated.get()).isEqualTo(2);
+        assertThat(config.someValue()).isEqualTo("Three");
+        // the cache has been refreshed
+        load(TestInterface1.class, file);
+        assertThat(storesCreated.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFileChangedWhileParsingIsNotCached() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        TestInterface1 first = Configuration
+                .loadInterface(TestInterface1.class)
+                .fromFile(file, f -> {
+                    Files.write(f, Arrays.asList("someValue=Three", "anotherValue=Two"), StandardCharsets.ISO_8859_1);
+                    return new PropertiesStore(f);
+                })
+                .withCache(getCacheFile())
+                .done();
+        assertThat(first.someValue()).isEqualTo("Three");
+        assertThat(Files.exists(getCacheFile())).isFalse();
+        writeConfig("someValue=One", "anotherValue=Two");
+        assertThat(load(TestInterface1.class, file).someValue()).isEqualTo("One");
+    }
+
+    @Test
+    public void testChangedInterfaceIsParsed() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        load(TestInterface1.class, file);
+        TestInterface2 config = load(TestInterface2.class, file);
+        assertThat(storesCreated.get()).isEqualTo(2);
+        assertThat(config.anotherValue()).isEqualTo(Optional.of("Two"));
+    }
+
+    @Test
+    public void testCorruptCacheIsIgnored() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        Files.createDirectories(getCacheFile().getParent());
+        Files.write(getCacheFile(), "not a cache".getBytes(StandardCharsets.UTF_8));
+        TestInterface1 config = load(TestInterface1.class, file);
+        assertThat(config.someValue()).isEqualTo("One");
+        load(TestInterface1.class, file);
+        assertThat(storesCreated.get()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCacheRequiresFile() throws Exception {
+        Configuration
+                .loadInterface(TestInterface1.class)
+                .fromStore(new PropertiesStore(new Properties()))
+                .withCache(getCacheFile());
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.ConfigurationDiff;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationDiffTest {
+    private static Properties nesting(int toplevelInt, int nestedInt) {
+        Properties properties = new Properties();
+        properties.setProperty("toplevelInt", String.valueOf(toplevelInt));
+        properties.setProperty("toplevelDate", "2012-02-03");
+        properties.setProperty("nested.nestedInt", String.valueOf(nestedInt));
+        properties.setProperty("nested.nestedDate", "2011-11-11");
+        return properties;
+    }
+
+    private static NestingTestInterface load(Properties properties, BindingMode bindingMode) throws Exception {
+        return Configuration
+                .loadInterface(NestingTestInterface.class)
+                .fromStore(new PropertiesStore(properties))
+                .withBindingMode(bindingMode)
+                .done();
+    }
+
+    @Test
+    public void testNoChanges() throws Exception {
+        assertThat(ConfigurationDiff.changedOptions(NestingTestInterface.class,
+                load(nesting(1, 2), BindingMode.PROXY), load(nesting(1, 2), BindingMode.PROXY))).isEmpty();
+    }
+
+    @Test
+    public void testChanges() throws Exception {
+        for (BindingMode bindingMode : BindingMode.values()) {
+            assertThat(ConfigurationDiff.changedOptions(NestingTestInterface.class,
+                    load(nesting(1, 2), bindingMode), load(nesting(1, 3), bindingMode)))
+                    .containsExactly("nested.nestedInt");
+            assertThat(ConfigurationDiff.changedOptions(NestingTestInterface.class,
+                    load(nesting(1, 2), bindingMode), load(nesting(4, 3), bindingMode)))
+                    .containsExactly("nested.nestedInt", "toplevelInt");
+        }
+    }
+
+    @Test
+    public void testIsAffected() {
+        assertThat(ConfigurationDiff.isAffected("nested", Collections.singleton("nested.nestedInt")))
+                .isTrue();
+        assertThat(ConfigurationDiff.isAffected("nest", Collections.singleton("nested.nestedInt")))
+                .isFalse();
+        assertThat(ConfigurationDiff.isAffected("", Collections.singleton("toplevelInt"))).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOptionPath() throws Exception {
+        ConfigurationDiff.checkOptionPath(NestingTestInterface.class, "nested.missing");
+    }
+}
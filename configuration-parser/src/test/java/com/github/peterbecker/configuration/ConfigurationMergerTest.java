@@ -0,0 +1,67 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.ConfigurationMerger;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationMergerTest {
+    private static ListTestInterface load(String firstNestedInt, String secondNestedInt, BindingMode bindingMode)
+            throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("stringValues.0", "First");
+        properties.setProperty("nested.0.nestedInt", firstNestedInt);
+        properties.setProperty("nested.0.nestedDate", "2001-12-24");
+        properties.setProperty("nested.1.nestedInt", secondNestedInt);
+        properties.setProperty("nested.1.nestedDate", "2001-12-31");
+        return Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(new PropertiesStore(properties))
+                .withBindingMode(bindingMode)
+                .done();
+    }
+
+    @Test
+    public void testUnchangedConfigurationIsReused() throws Exception {
+        ListTestInterface previous = load("1", "2", BindingMode.PROXY);
+        ListTestInterface merged = ConfigurationMerger.reuseUnchanged(ListTestInterface.class, previous,
+                load("1", "2", BindingMode.PROXY));
+        assertThat(merged).isSameAs(previous);
+    }
+
+    @Test
+    public void testUnchangedElementsAreReused() throws Exception {
+        for (BindingMode bindingMode : new BindingMode[]{BindingMode.PROXY, BindingMode.GENERATED_CLASS}) {
+            ListTestInterface previous = load("1", "2", bindingMode);
+            ListTestInterface merged = ConfigurationMerger.reuseUnchanged(ListTestInterface.class, previous,
+                    load("1", "3", bindingMode));
+            assertThat(merged).isNotSameAs(previous);
+            assertThat(merged.getClass()).isEqualTo(previous.getClass());
+            assertThat(merged.nested().get(0)).isSameAs(previous.nested().get(0));
+            assertThat(merged.nested().get(1)).isNotSameAs(previous.nested().get(1));
+            assertThat(merged.nested().get(1).nestedInt()).isEqualTo(3);
+            assertThat(merged.stringValues()).containsExactly("First");
+        }
+    }
+
+    @Test
+    public void testLazyConfigurationsStayLazy() throws Exception {
+        ListTestInterface previous = load("1", "2", BindingMode.LAZY);
+        ListTestInterface merged = ConfigurationMerger.reuseUnchanged(ListTestInterface.class, previous,
+                load("1", "3", BindingMode.LAZY));
+        assertThat(Proxy.getInvocationHandler(merged).getClass())
+                .isSameAs(Proxy.getInvocationHandler(previous).getClass());
+        assertThat(merged.nested().get(0)).isSameAs(previous.nested().get(0));
+        assertThat(merged.nested().get(1).nestedInt()).isEqualTo(3);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testLazyParseFailure() throws Exception {
+        ListTestInterface previous = load("1", "2", BindingMode.LAZY);
+        ConfigurationMerger.reuseUnchanged(ListTestInterface.class, previous, load("1", "three", BindingMode.LAZY));
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.ConfigurationSchema;
+import com.github.peterbecker.configuration.parser.OptionSchema;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationSchemaTest {
+    @Test
+    public void testSchemaIsCached() throws Exception {
+        assertThat(ConfigurationSchema.of(ListTestInterface.class))
+                .isSameAs(ConfigurationSchema.of(ListTestInterface.class));
+    }
+
+    @Test
+    public void testOptionKinds() throws Exception {
+        ConfigurationSchema<NestingTestInterface> nesting = ConfigurationSchema.of(NestingTestInterface.class);
+        assertThat(nesting.getOptions()).extracting(OptionSchema::getName)
+                .containsExactlyInAnyOrder("toplevelInt", "toplevelDate", "nested");
+        assertThat(getOption(nesting, "toplevelInt").getKind()).isEqualTo(OptionSchema.Kind.VALUE);
+        assertThat(getOption(nesting, "toplevelInt").getValueType()).isEqualTo(int.class);
+        assertThat(getOption(nesting, "nested").getKind()).isEqualTo(OptionSchema.Kind.NESTED);
+
+        ConfigurationSchema<ListTestInterface> lists = ConfigurationSchema.of(ListTestInterface.class);
+        assertThat(getOption(lists, "dates").getKind()).isEqualTo(OptionSchema.Kind.LIST);
+        assertThat(getOption(lists, "dates").getValueType()).isEqualTo(LocalDate.class);
+        assertThat(getOption(lists, "nested").getKind()).isEqualTo(OptionSchema.Kind.NESTED_LIST);
+
+        ConfigurationSchema<TestInterfaceWithDefaults> defaults = ConfigurationSchema.of(TestInterfaceWithDefaults.class);
+        assertThat(getOption(defaults, "defaultedInt").getDefaultValue()).isEqualTo(Optional.of("7"));
+        assertThat(getOption(nesting, "toplevelInt").getDefaultValue()).isEqualTo(Optional.empty());
+    }
+
+    @Test(
+            expected = ConfigurationException.class
+    )
+    public void testInvalidInterface() throws Exception {
+        ConfigurationSchema.of(Comparable.class);
+    }
+
+    @Test
+    public void testRepeatedLoadsShareDefaults() throws Exception {
+        Path testFile = Paths.get(ConfigurationSchemaTest.class.getResource("/defaults.properties").toURI());
+        TestInterfaceWithDefaults first = load(testFile);
+        TestInterfaceWithDefaults second = load(testFile);
+        assertThat(first.defaultedDate()).isEqualTo(LocalDate.of(2015, 2, 19));
+        assertThat(second.defaultedDate()).isSameAs(first.defaultedDate());
+    }
+
+    private static TestInterfaceWithDefaults load(Path testFile) throws Exception {
+        return Configuration
+                .loadInterface(TestInterfaceWithDefaults.class)
+                .fromStore(new PropertiesStore(testFile))
+                .withValueParser(SpecialValueType.class, s -> SpecialValueType.fromInt(Integer.parseInt(s)))
+                .done();
+    }
+
+    private static OptionSchema getOption(ConfigurationSchema<?> schema, String name) {
+        return schema.getOptions().stream()
+                .filter(o -> o.getName().equals(name))
+                .findFirst()
+                .orElseThrow(IllegalArgumentException::new);
+    }
+}
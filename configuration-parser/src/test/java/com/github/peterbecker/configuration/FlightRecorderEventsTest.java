@@ -0,0 +1,93 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class FlightRecorderEventsTest {
+    private static final String PREFIX = "com.github.peterbecker.configuration.";
+
+    public interface IntTestInterface {
+        int value();
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = Files.createTempFile("configuration", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PREFIX + "InterfaceParse");
+            recording.enable(PREFIX + "StoreParse");
+            recording.enable(PREFIX + "ValueParseFailure");
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith(PREFIX))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParseEvents() throws Exception {
+        Path file = Paths.get(FlightRecorderEventsTest.class.getResource("/nesting.properties").toURI());
+        List<RecordedEvent> events = record(() -> {
+            try {
+                Configuration.loadInterface(NestingTestInterface.class)
+                        .fromStore(new PropertiesStore(file))
+                        .done();
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        List<String> names = events.stream()
+                .map(event -> event.getEventType().getName().substring(PREFIX.length()))
+                .collect(Collectors.toList());
+        assertThat(names).containsExactly("StoreParse", "InterfaceParse", "InterfaceParse");
+        assertThat(events.get(0).getString("source")).isEqualTo(file.toString());
+        // the nested interface is committed first, its event is contained in the outer one
+        assertThat(events.get(1).getString("context")).isEqualTo("nested");
+        assertThat(events.get(2).getString("context")).isEmpty();
+        assertThat(events.get(2).getDuration()).isGreaterThanOrEqualTo(events.get(1).getDuration());
+    }
+
+    @Test
+    public void testValueParseFailure() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("value", "s3cr3t");
+        List<RecordedEvent> events = record(() -> {
+            try {
+                Configuration.loadInterface(IntTestInterface.class)
+                        .fromStore(new PropertiesStore(properties))
+                        .done();
+                fail("Invalid value not detected");
+            } catch (NumberFormatException e) {
+                // expected
+            } catch (ConfigurationException e) {
+                throw new AssertionError(e);
+            }
+        });
+        assertThat(events).hasSize(2);
+        RecordedEvent failure = events.get(0);
+        assertThat(failure.getEventType().getName()).isEqualTo(PREFIX + "ValueParseFailure");
+        assertThat(failure.getString("optionName")).isEqualTo("value");
+        assertThat(failure.getString("message")).isEqualTo(NumberFormatException.class.getName());
+        // the value might be confidential, it must not end up in the recording
+        for (RecordedEvent event : events) {
+            assertThat(event.toString()).doesNotContain("s3cr3t");
+        }
+    }
+}
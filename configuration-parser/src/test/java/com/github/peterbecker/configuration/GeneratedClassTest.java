@@ -0,0 +1,66 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeneratedClassTest {
+    @Test
+    public void testStandardValueTypes() throws Exception {
+        Path testFile = Paths.get(GeneratedClassTest.class.getResource("/valueTypes.properties").toURI());
+        TestInterfaceStandardValueTypes config = Configuration
+                .loadInterface(TestInterfaceStandardValueTypes.class)
+                .fromStore(new PropertiesStore(testFile))
+                .withBindingMode(BindingMode.GENERATED_CLASS)
+                .done();
+        assertThat(Proxy.isProxyClass(config.getClass())).isFalse();
+        assertThat(config.requiredString()).isEqualTo("Test");
+        assertThat(config.absentOptionalString()).isEqualTo(Optional.empty());
+        assertThat(config.requiredPrimitiveInt()).isEqualTo(66);
+        assertThat(config.requiredPrimitiveLong()).isEqualTo(12345L);
+        assertThat(config.requiredPrimitiveShort()).isEqualTo((short) 123);
+        assertThat(config.requiredPrimitiveByte()).isEqualTo((byte) 78);
+        assertThat(config.requiredPrimitiveFloat()).isEqualTo(12.34F);
+        assertThat(config.requiredPrimitiveDouble()).isEqualTo(34.56D);
+        assertThat(config.requiredPrimitiveBoolean()).isEqualTo(true);
+    }
+
+    @Test
+    public void testNestedInterfacesAndLists() throws Exception {
+        Path testFile = Paths.get(GeneratedClassTest.class.getResource("/lists.properties").toURI());
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(new PropertiesStore(testFile))
+                .withBindingMode(BindingMode.GENERATED_CLASS)
+                .done();
+        assertThat(config.intValues()).containsExactly(7, 5, 5, 7);
+        assertThat(config.nested()).hasSize(2);
+        NestedListTestInterface first = config.nested().get(0);
+        assertThat(Proxy.isProxyClass(first.getClass())).isFalse();
+        assertThat(first.nestedDate()).isEqualTo(LocalDate.of(2001, 12, 24));
+        assertThat(first.stringValues()).containsExactly("001", "007");
+    }
+
+    @Test
+    public void testDefaultMethods() throws Exception {
+        Properties properties = new Properties();
+        properties.put("someNumber", "5");
+        properties.put("someThing", "frogs");
+        TestInterfaceWithDefaultMethods config =
+                Configuration.
+                        loadInterface(TestInterfaceWithDefaultMethods.class).
+                        fromStore(new PropertiesStore(properties)).
+                        withBindingMode(BindingMode.GENERATED_CLASS).
+                        done();
+        assertThat(config.whatDoWeHave()).isEqualTo("5 frogs");
+        assertThat(config.multiplify(3)).isEqualTo(15);
+    }
+}
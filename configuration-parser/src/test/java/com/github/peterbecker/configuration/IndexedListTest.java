@@ -0,0 +1,121 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.ConfigurationMerger;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.v1.IndexedList;
+import com.github.peterbecker.configuration.v1.Option;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IndexedListTest {
+    public interface UnknownIndexTestInterface {
+        @Option(indexedBy = "unknown")
+        List<NestedTestInterface> nested();
+    }
+
+    public interface ValueIndexTestInterface {
+        @Option(indexedBy = "length")
+        List<String> values();
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Path getResource() throws Exception {
+        return Paths.get(IndexedListTest.class.getResource("/indexed.properties").toURI());
+    }
+
+    private static IndexedListTestInterface load(BindingMode bindingMode) throws Exception {
+        return Configuration
+                .loadInterface(IndexedListTestInterface.class)
+                .fromStore(new PropertiesStore(getResource()))
+                .withBindingMode(bindingMode)
+                .done();
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        for (BindingMode bindingMode : BindingMode.values()) {
+            IndexedListTestInterface config = load(bindingMode);
+            IndexedList<NestedTestInterface> nested = config.nested();
+            assertThat(nested).hasSize(3);
+            assertThat(nested.lookup("nestedInt", 2).get()).isSameAs(nested.get(1));
+            assertThat(nested.lookup("nestedInt", 5)).isEqualTo(Optional.empty());
+            assertThat(nested.lookupAll("nestedOptionalTruth", true)).containsExactly(nested.get(0), nested.get(2));
+            assertThat(nested.lookupAll("nestedOptionalTruth", false)).isEmpty();
+            IndexedList<NestedTestInterface> byDate = (IndexedList<NestedTestInterface>) config.byDate();
+            assertThat(byDate.lookup("nestedDate", LocalDate.of(2002, 1, 1)).get().nestedInt()).isEqualTo(4);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookupWithoutIndex() throws Exception {
+        load(BindingMode.PROXY).nested().lookup("nestedDate", LocalDate.of(2001, 12, 24));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListIsImmutable() throws Exception {
+        load(BindingMode.PROXY).nested().remove(0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLookupResultIsImmutable() throws Exception {
+        IndexedList<NestedTestInterface> nested = load(BindingMode.PROXY).nested();
+        nested.lookupAll("nestedOptionalTruth", true).add(nested.get(1));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testUnknownIndexOption() throws Exception {
+        Configuration
+                .loadInterface(UnknownIndexTestInterface.class)
+                .fromStore(new PropertiesStore(new Properties()))
+                .done();
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testIndexOnValueList() throws Exception {
+        Configuration
+                .loadInterface(ValueIndexTestInterface.class)
+                .fromStore(new PropertiesStore(new Properties()))
+                .done();
+    }
+
+    @Test
+    public void testMergeAndCache() throws Exception {
+        IndexedListTestInterface previous = load(BindingMode.PROXY);
+        Properties properties = new Properties();
+        properties.load(Files.newInputStream(getResource()));
+        properties.setProperty("nested.2.nestedInt", "7");
+        IndexedListTestInterface updated = Configuration
+                .loadInterface(IndexedListTestInterface.class)
+                .fromStore(new PropertiesStore(properties))
+                .done();
+        IndexedListTestInterface merged =
+                ConfigurationMerger.reuseUnchanged(IndexedListTestInterface.class, previous, updated);
+        assertThat(merged.nested().get(0)).isSameAs(previous.nested().get(0));
+        assertThat(merged.nested().lookup("nestedInt", 7).get()).isSameAs(updated.nested().get(2));
+
+        Path file = folder.getRoot().toPath().resolve("indexed.properties");
+        Files.copy(getResource(), file);
+        Path cacheFile = folder.getRoot().toPath().resolve("indexed.cache");
+        for (int i = 0; i < 2; i++) {
+            IndexedListTestInterface config = Configuration
+                    .loadInterface(IndexedListTestInterface.class)
+                    .fromFile(file, PropertiesStore::new)
+                    .withCache(cacheFile)
+                    .done();
+            assertThat(config.nested().lookup("nestedInt", 3).get().nestedDate()).isEqualTo(LocalDate.of(2001, 12, 31));
+        }
+    }
+}
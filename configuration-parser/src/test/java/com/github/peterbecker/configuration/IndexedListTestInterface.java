@@ -0,0 +1,14 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.v1.IndexedList;
+import com.github.peterbecker.configuration.v1.Option;
+
+import java.util.List;
+
+public interface IndexedListTestInterface {
+    @Option(indexedBy = {"nestedInt", "nestedOptionalTruth"})
+    IndexedList<NestedTestInterface> nested();
+
+    @Option(indexedBy = "nestedDate")
+    List<NestedTestInterface> byDate();
+}
@@ -0,0 +1,91 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.ValueInterner;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InterningTest {
+    private static final class Name {
+        private final String value;
+
+        private Name(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Name && ((Name) o).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value);
+        }
+    }
+
+    private static Properties getProperties() {
+        Properties properties = new Properties();
+        for (int i = 0; i < 3; i++) {
+            properties.setProperty("nested." + i + ".nestedInt", "1000");
+            properties.setProperty("nested." + i + ".nestedDate", "2001-12-24");
+            properties.setProperty("nested." + i + ".stringValues.0", new String(new char[]{'a', 'b', 'c'}));
+        }
+        return properties;
+    }
+
+    private static ListTestInterface load(ValueInterner interner, BindingMode bindingMode) throws Exception {
+        return Configuration.loadInterface(ListTestInterface.class)
+                .fromStore(new PropertiesStore(getProperties()))
+                .withBindingMode(bindingMode)
+                .withInterning(interner)
+                .done();
+    }
+
+    @Test
+    public void testEqualValuesAreShared() throws Exception {
+        ValueInterner interner = new ValueInterner();
+        ListTestInterface config = load(interner, BindingMode.PROXY);
+        assertThat(config.nested()).hasSize(3);
+        String first = config.nested().get(0).stringValues().get(0);
+        LocalDate date = config.nested().get(0).nestedDate();
+        for (NestedListTestInterface nested : config.nested()) {
+            assertThat(nested.stringValues().get(0)).isSameAs(first);
+            assertThat(nested.nestedDate()).isSameAs(date);
+            assertThat(nested.nestedInt()).isEqualTo(1000);
+        }
+        ValueInterner.Statistics statistics = interner.getStatistics();
+        assertThat(statistics.getLookups()).isEqualTo(9);
+        assertThat(statistics.getDeduplicated()).isEqualTo(6);
+        assertThat(statistics.getPooledValues()).isEqualTo(3);
+        assertThat(statistics.getEstimatedBytesSaved()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testValuesAreSharedAcrossLoads() throws Exception {
+        ValueInterner interner = new ValueInterner();
+        ListTestInterface first = load(interner, BindingMode.PROXY);
+        ListTestInterface second = load(interner, BindingMode.LAZY);
+        assertThat(second.nested().get(2).stringValues().get(0))
+                .isSameAs(first.nested().get(0).stringValues().get(0));
+        assertThat(second.nested().get(1).nestedDate()).isSameAs(first.nested().get(0).nestedDate());
+    }
+
+    @Test
+    public void testOnlyImmutableTypesArePooled() {
+        ValueInterner interner = new ValueInterner();
+        Name name = new Name("x");
+        assertThat(interner.intern(new Name("x"))).isNotSameAs(interner.intern(name));
+        assertThat(interner.getStatistics().getLookups()).isEqualTo(0);
+
+        interner.withImmutableType(Name.class);
+        assertThat(interner.intern(name)).isSameAs(name);
+        assertThat(interner.intern(new Name("x"))).isSameAs(name);
+        assertThat(interner.getStatistics().getDeduplicated()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.Key;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.Store;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+public class LazyBindingTest {
+    public interface UnparseableTestInterface {
+        StringBuilder value();
+    }
+
+    public interface IntTestInterface {
+        int value();
+    }
+
+    private static Store getStore(String baseName) throws Exception {
+        return new PropertiesStore(Paths.get(LazyBindingTest.class.getResource("/" + baseName + ".properties").toURI()));
+    }
+
+    @Test
+    public void testValuesAreParsedOnAccess() throws Exception {
+        List<Key> lookups = new ArrayList<>();
+        Store store = getStore("nesting");
+        NestingTestInterface config = Configuration
+                .loadInterface(NestingTestInterface.class)
+                .fromStore(key -> {
+                    lookups.add(key);
+                    return store.getValue(key);
+                })
+                .withBindingMode(BindingMode.LAZY)
+                .done();
+        assertThat(lookups).isEmpty();
+        assertThat(config.toplevelInt()).isEqualTo(12);
+        assertThat(lookups).containsExactly(Key.of(Key.ROOT, "toplevelInt", -1));
+        assertThat(config.toplevelInt()).isEqualTo(12);
+        assertThat(config.nested()).isSameAs(config.nested());
+        assertThat(lookups).hasSize(1);
+        assertThat(config.nested().nestedDate()).isEqualTo(LocalDate.of(2011, 11, 11));
+        assertThat(lookups).hasSize(2);
+    }
+
+    @Test
+    public void testLists() throws Exception {
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(getStore("lists"))
+                .withBindingMode(BindingMode.LAZY)
+                .done();
+        assertThat(config.stringValues()).containsExactly("First", "Second", "Third");
+        assertThat(config.nested()).hasSize(2);
+        assertThat(config.nested().get(0).stringValues()).containsExactly("001", "007");
+        assertThat(config.nested().get(1).nestedOptionalTruth()).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    public void testInvalidValueOnAccess() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("someValue", "One");
+        TestInterface1 config = Configuration
+                .loadInterface(TestInterface1.class)
+                .fromStore(new PropertiesStore(properties))
+                .withBindingMode(BindingMode.LAZY)
+                .done();
+        assertThat(config.someValue()).isEqualTo("One");
+        try {
+            config.anotherValue();
+            fail("Missing value not detected");
+        } catch (UncheckedConfigurationException e) {
+            assertThat(e.getCause().getMessage()).contains("anotherValue");
+        }
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testValidateAll() throws Exception {
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(getStore("malformedList"))
+                .withBindingMode(BindingMode.LAZY)
+                .done();
+        Configuration.validateAll(config);
+    }
+
+    @Test
+    public void testMalformedValueIsReportedAsConfigurationException() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("value", "twelve");
+        IntTestInterface config = Configuration
+                .loadInterface(IntTestInterface.class)
+                .fromStore(new PropertiesStore(properties))
+                .withBindingMode(BindingMode.LAZY)
+                .done();
+        assertThatThrownBy(config::value)
+                .isInstanceOf(UncheckedConfigurationException.class)
+                .hasRootCauseInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("value");
+        assertThatThrownBy(() -> Configuration.validateAll(config))
+                .isInstanceOf(ConfigurationException.class)
+                .hasCauseInstanceOf(NumberFormatException.class);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testMissingParserIsDetectedOnLoad() throws Exception {
+        Configuration
+                .loadInterface(UnparseableTestInterface.class)
+                .fromStore(new PropertiesStore(new Properties()))
+                .withBindingMode(BindingMode.LAZY)
+                .done();
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.ConfigurationDiff;
+import com.github.peterbecker.configuration.parser.ConfigurationMerger;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class MapOptionTest {
+    public interface IntegerKeyTestInterface {
+        Map<Integer, String> values();
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Path getResource() throws Exception {
+        return Paths.get(MapOptionTest.class.getResource("/maps.properties").toURI());
+    }
+
+    private static MapTestInterface load(String acmeNestedInt, String globexNestedInt) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("timeouts.read", "5");
+        properties.setProperty("tenants.acme.nestedInt", acmeNestedInt);
+        properties.setProperty("tenants.acme.nestedDate", "2001-12-24");
+        properties.setProperty("tenants.globex.nestedInt", globexNestedInt);
+        properties.setProperty("tenants.globex.nestedDate", "2001-12-31");
+        return Configuration
+                .loadInterface(MapTestInterface.class)
+                .fromStore(new PropertiesStore(properties))
+                .done();
+    }
+
+    @Test
+    public void testBindingModes() throws Exception {
+        for (BindingMode bindingMode : BindingMode.values()) {
+            MapTestInterface config = Configuration
+                    .loadInterface(MapTestInterface.class)
+                    .fromStore(new PropertiesStore(getResource()))
+                    .withBindingMode(bindingMode)
+                    .done();
+            assertThat(config.timeouts()).containsOnly(entry("read", 5), entry("write", 10));
+            assertThat(config.tenants().get("globex").nestedInt()).isEqualTo(2);
+            assertThat(config.missing()).isEmpty();
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMapsAreImmutable() throws Exception {
+        load("1", "2").timeouts().put("other", 1);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testMissingEntryValue() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("timeouts.read.seconds", "5");
+        Configuration
+                .loadInterface(MapTestInterface.class)
+                .fromStore(new PropertiesStore(properties))
+                .done();
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testStoreWithoutMapSupport() throws Exception {
+        PropertiesStore store = new PropertiesStore(getResource());
+        Configuration
+                .loadInterface(MapTestInterface.class)
+                .fromStore(store::getValue)
+                .done();
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testKeysMustBeStrings() throws Exception {
+        Configuration
+                .loadInterface(IntegerKeyTestInterface.class)
+                .fromStore(new PropertiesStore(new Properties()))
+                .done();
+    }
+
+    @Test
+    public void testDiffAndMerge() throws Exception {
+        MapTestInterface previous = load("1", "2");
+        MapTestInterface updated = load("1", "3");
+        assertThat(ConfigurationDiff.changedOptions(MapTestInterface.class, previous, updated))
+                .containsExactly("tenants");
+        MapTestInterface merged = ConfigurationMerger.reuseUnchanged(MapTestInterface.class, previous, updated);
+        assertThat(merged.tenants().get("acme")).isSameAs(previous.tenants().get("acme"));
+        assertThat(merged.tenants().get("globex").nestedInt()).isEqualTo(3);
+        assertThat(ConfigurationMerger.reuseUnchanged(MapTestInterface.class, previous, load("1", "2")))
+                .isSameAs(previous);
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("maps.properties");
+        Files.copy(getResource(), file);
+        Path cacheFile = folder.getRoot().toPath().resolve("maps.cache");
+        for (int i = 0; i < 2; i++) {
+            MapTestInterface config = Configuration
+                    .loadInterface(MapTestInterface.class)
+                    .fromFile(file, PropertiesStore::new)
+                    .withCache(cacheFile)
+                    .done();
+            assertThat(Files.exists(cacheFile)).isTrue();
+            assertThat(config.dates()).containsOnlyKeys("start");
+            assertThat(config.tenants().get("acme").nestedOptionalTruth()).isEqualTo(Optional.of(true));
+        }
+    }
+}
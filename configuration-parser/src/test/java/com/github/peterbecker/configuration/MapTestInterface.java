@@ -0,0 +1,11 @@
+package com.github.peterbecker.configuration;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface MapTestInterface {
+    Map<String, Integer> timeouts();
+    Map<String, LocalDate> dates();
+    Map<String, NestedTestInterface> tenants();
+    Map<String, String> missing();
+}
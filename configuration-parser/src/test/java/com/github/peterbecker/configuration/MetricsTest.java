@@ -0,0 +1,153 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.OptionAccessCounts;
+import com.github.peterbecker.configuration.parser.PrimitiveLists;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import com.github.peterbecker.configuration.storage.Store;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static class RecordingListener implements ConfigurationMetricsListener {
+        private final List<Class<?>> loaded = new ArrayList<>();
+        private final List<StoreOperation> lookups = new ArrayList<>();
+        private final List<Class<?>> parsed = new ArrayList<>();
+        private int keysFound;
+        private OptionAccessCounts accessCounts;
+
+        @Override
+        public void configurationLoaded(Class<?> configurationInterface, long durationNanos,
+                                        OptionAccessCounts accessCounts) {
+            assertThat(durationNanos).isPositive();
+            loaded.add(configurationInterface);
+            this.accessCounts = accessCounts;
+        }
+
+        @Override
+        public void storeLookup(Class<? extends Store> storeType, StoreOperation operation, int keys, int found,
+                                long durationNanos) {
+            assertThat(storeType).isEqualTo(PropertiesStore.class);
+            assertThat(found).isLessThanOrEqualTo(keys);
+            lookups.add(operation);
+            keysFound += found;
+        }
+
+        @Override
+        public void valueParsed(Class<?> valueType, long durationNanos) {
+            parsed.add(valueType);
+        }
+    }
+
+    private static Store getStore(String baseName) throws Exception {
+        return new PropertiesStore(Paths.get(MetricsTest.class.getResource("/" + baseName + ".properties").toURI()));
+    }
+
+    @Test
+    public void testLoadIsMeasured() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        NestingTestInterface config = Configuration
+                .loadInterface(NestingTestInterface.class)
+                .fromStore(getStore("nesting"))
+                .withMetrics(listener)
+                .done();
+        assertThat(config.nested().nestedInt()).isEqualTo(33);
+        assertThat(listener.loaded).containsExactly(NestingTestInterface.class);
+        assertThat(listener.lookups).isNotEmpty();
+        assertThat(listener.keysFound).isEqualTo(5);
+        assertThat(listener.parsed).contains(Integer.TYPE, LocalDate.class, Boolean.class);
+    }
+
+    @Test
+    public void testAccessCounts() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(getStore("lists"))
+                .withMetrics(listener)
+                .done();
+        OptionAccessCounts counts = listener.accessCounts;
+        assertThat(counts.get("stringValues")).isZero();
+        config.stringValues();
+        config.stringValues();
+        config.nested().get(0).nestedInt();
+        config.nested().get(1).nestedInt();
+        assertThat(counts.get("stringValues")).isEqualTo(2);
+        assertThat(counts.get("nested")).isEqualTo(2);
+        assertThat(counts.get("nested.nestedInt")).isEqualTo(2);
+        assertThat(counts.snapshot()).containsEntry("dates", 0L).containsEntry("nested.nestedDate", 0L);
+    }
+
+    @Test
+    public void testLazyAccessCounts() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        NestingTestInterface config = Configuration
+                .loadInterface(NestingTestInterface.class)
+                .fromStore(getStore("nesting"))
+                .withBindingMode(BindingMode.LAZY)
+                .withMetrics(listener)
+                .done();
+        assertThat(listener.parsed).isEmpty();
+        config.nested().nestedInt();
+        config.nested().nestedInt();
+        assertThat(listener.accessCounts.get("nested")).isEqualTo(2);
+        assertThat(listener.accessCounts.get("nested.nestedInt")).isEqualTo(2);
+        assertThat(listener.parsed).containsExactly(Integer.TYPE);
+    }
+
+    @Test
+    public void testReloadedConfigurationIsCounted() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("nesting.properties");
+        Files.write(file, Arrays.asList("toplevelInt=12", "toplevelDate=2012-02-03",
+                "nested.nestedInt=33", "nested.nestedDate=2011-11-11"), StandardCharsets.ISO_8859_1);
+        RecordingListener listener = new RecordingListener();
+        try (ReloadingConfiguration<NestingTestInterface> config = Configuration
+                .loadInterface(NestingTestInterface.class)
+                .fromFile(file, PropertiesStore::new)
+                .withMetrics(listener)
+                .watch()) {
+            NestedTestInterface nested = config.get().nested();
+            Files.write(file, Arrays.asList("toplevelInt=13", "toplevelDate=2012-02-03",
+                    "nested.nestedInt=33", "nested.nestedDate=2011-11-11"), StandardCharsets.ISO_8859_1);
+            config.reload();
+            assertThat(listener.loaded).hasSize(2);
+            OptionAccessCounts counts = listener.accessCounts;
+            config.get().toplevelInt();
+            // the root object is merged, the nested one is reused from the previous configuration
+            assertThat(config.get().nested()).isSameAs(nested);
+            nested.nestedInt();
+            assertThat(counts.get("toplevelInt")).isEqualTo(1);
+            assertThat(counts.get("nested")).isEqualTo(1);
+            assertThat(counts.get("nested.nestedInt")).isEqualTo(1);
+            // an unchanged file returns the previous object, which is counted for the new load
+            config.reload();
+            assertThat(listener.accessCounts).isNotSameAs(counts);
+            config.get().toplevelInt();
+            assertThat(listener.accessCounts.get("toplevelInt")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testPrimitiveListsAreKept() throws Exception {
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(getStore("lists"))
+                .withMetrics(new RecordingListener())
+                .done();
+        assertThat(config.intValues()).isInstanceOf(PrimitiveLists.IntList.class);
+    }
+}
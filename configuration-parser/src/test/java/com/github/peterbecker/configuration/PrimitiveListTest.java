@@ -0,0 +1,69 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.parser.PrimitiveLists;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PrimitiveListTest {
+    private static ListTestInterface load(boolean customIntegerParser) throws Exception {
+        return load(customIntegerParser, BindingMode.PROXY);
+    }
+
+    private static ListTestInterface load(boolean customIntegerParser, BindingMode bindingMode) throws Exception {
+        Configuration.ConfigurationBuilder<ListTestInterface> builder = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(new PropertiesStore(
+                        Paths.get(PrimitiveListTest.class.getResource("/lists.properties").toURI())))
+                .withBindingMode(bindingMode);
+        if (customIntegerParser) {
+            builder.withValueParser(Integer.class, s -> Integer.parseInt(s) * 2);
+        }
+        return builder.done();
+    }
+
+    @Test
+    public void testIntegerListIsPrimitive() throws Exception {
+        ListTestInterface config = load(false);
+        assertThat(config.intValues()).isInstanceOf(PrimitiveLists.IntList.class);
+        PrimitiveLists.IntList intValues = (PrimitiveLists.IntList) config.intValues();
+        assertThat(intValues.getInt(1)).isEqualTo(5);
+        assertThat(intValues.toIntArray()).containsExactly(7, 5, 5, 7);
+        assertThat(intValues).isEqualTo(Arrays.asList(7, 5, 5, 7));
+        assertThat(intValues.hashCode()).isEqualTo(Arrays.asList(7, 5, 5, 7).hashCode());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPrimitiveListIsReadOnly() throws Exception {
+        load(false).intValues().add(3);
+    }
+
+    @Test
+    public void testAllListsAreReadOnly() throws Exception {
+        for (BindingMode bindingMode : BindingMode.values()) {
+            ListTestInterface config = load(true, bindingMode);
+            assertThatThrownBy(() -> config.intValues().add(3))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> config.stringValues().add("Fourth"))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> config.dates().clear())
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> config.nested().remove(0))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> config.nested().get(0).stringValues().add("Fourth"))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Test
+    public void testCustomParserIsUsed() throws Exception {
+        ListTestInterface config = load(true);
+        assertThat(config.intValues()).isNotInstanceOf(PrimitiveLists.IntList.class);
+        assertThat(config.intValues()).containsExactly(14, 10, 10, 14);
+    }
+}
@@ -0,0 +1,234 @@
+package com.github.peterbecker.configuration;
+
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class ReloadingConfigurationTest {
+    public interface IntTestInterface {
+        int value();
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeConfig(String... lines) throws Exception {
+        Path file = folder.getRoot().toPath().resolve("config.properties");
+        Files.write(file, Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+        return file;
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        try (ReloadingConfiguration<TestInterface1> config = Configuration
+                .loadInterface(TestInterface1.class)
+                .fromFile(file, PropertiesStore::new)
+                .watch()) {
+            TestInterface1 first = config.get();
+            assertThat(first.someValue()).isEqualTo("One");
+            writeConfig("someValue=Three", "anotherValue=Four");
+            config.reload();
+            assertThat(config.get().someValue()).isEqualTo("Three");
+            assertThat(config.get().anotherValue()).isEqualTo("Four");
+            assertThat(first.someValue()).isEqualTo("One");
+        }
+    }
+
+    @Test
+    public void testFailedReloadKeepsConfiguration() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        try (ReloadingConfiguration<TestInterface1> config = Configuration
+                .loadInterface(TestInterface1.class)
+                .fromFile(file, PropertiesStore::new)
+                .watch()) {
+            writeConfig("someValue=Three");
+            try {
+                config.reload();
+                fail("Missing value not detected");
+            } catch (ConfigurationException e) {
+                assertThat(config.getLastFailure()).isEqualTo(Optional.of(e));
+            }
+            assertThat(config.get().someValue()).isEqualTo("One");
+        }
+    }
+
+    @Test
+    public void testChangeIsDetected() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        try (ReloadingConfiguration<TestInterface1> config = Configuration
+                .loadInterface(TestInterface1.class)
+                .fromFile(file, PropertiesStore::new)
+                .withReloadDelay(Duration.ofMillis(50))
+                .watch()) {
+            writeConfig("someValue=Three", "anotherValue=Four");
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (!config.get().someValue().equals("Three") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(config.get().someValue()).isEqualTo("Three");
+        }
+    }
+
+    @Test
+    public void testUnparsableValueKeepsConfiguration() throws Exception {
+        Path file = writeConfig("value=1");
+        try (ReloadingConfiguration<IntTestInterface> config = Configuration
+                .loadInterface(IntTestInterface.class)
+                .fromFile(file, PropertiesStore::new)
+                .watch()) {
+            writeConfig("value=twelve");
+            try {
+                config.reload();
+                fail("Invalid value not detected");
+            } catch (ConfigurationException e) {
+                assertThat(e.getCause()).isInstanceOf(NumberFormatException.class);
+                assertThat(config.getLastFailure()).isEqualTo(Optional.of(e));
+            }
+            assertThat(config.get().value()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testWatcherSurvivesUnparsableValue() throws Exception {
+        Path file = writeConfig("value=1");
+        try (ReloadingConfiguration<IntTestInterface> config = Configuration
+                .loadInterface(IntTestInterface.class)
+                .fromFile(file, PropertiesStore::new)
+                .withReloadDelay(Duration.ofMillis(50))
+                .watch()) {
+            writeConfig("value=twelve");
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (!config.getLastFailure().isPresent() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(config.getLastFailure()).isPresent();
+            assertThat(config.get().value()).isEqualTo(1);
+            writeConfig("value=2");
+            while (config.get().value() != 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(config.get().value()).isEqualTo(2);
+            assertThat(config.getLastFailure()).isEmpty();
+        }
+    }
+
+    @Test
+    public void testListeners() throws Exception {
+        Path file = writeConfig("someValue=One", "anotherValue=Two");
+        try (ReloadingConfiguration<TestInterface1> config = Configuration
+                .loadInterface(TestInterface1.class)
+                .fromFile(file, PropertiesStore::new)
+                .watch()) {
+            List<Set<String>> someValueChanges = new ArrayList<>();
+            List<Set<String>> anotherValueChanges = new ArrayList<>();
+            config.addListener("someValue", (oldConfig, newConfig, changes) -> someValueChanges.add(changes));
+            config.addListener("anotherValue", (oldConfig, newConfig, changes) -> anotherValueChanges.add(changes));
+            writeConfig("someValue=Three", "anotherValue=Two");
+            config.reload();
+            assertThat(someValueChanges).containsExactly(Collections.singleton("someValue"));
+            assertThat(anotherValueChanges).isEmpty();
+            TestInterface1 current = config.get();
+            config.reload();
+            assertThat(config.get()).isSameAs(current);
+            assertThat(someValueChanges).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testLazyValueFailingComparisonKeepsConfiguration() throws Exception {
+        Path file = writeConfig("value=1");
+        try (ReloadingConfiguration<IntTestInterface> config = Configuration
+                .loadInterface(IntTestInterface.class)
+                .fromFile(file, PropertiesStore::new)
+                .withBindingMode(BindingMode.LAZY)
+                .watch()) {
+            List<Set<String>> changes = new ArrayList<>();
+            config.addListener("value", (oldConfig, newConfig, changed) -> changes.add(changed));
+            IntTestInterface first = config.get();
+            writeConfig("value=twelve");
+            try {
+                config.reload();
+                fail("Invalid value not detected");
+            } catch (ConfigurationException e) {
+                assertThat(config.getLastFailure()).isEqualTo(Optional.of(e));
+            }
+            assertThat(config.get()).isSameAs(first);
+            assertThat(changes).isEmpty();
+            writeConfig("value=2");
+            config.reload();
+            assertThat(config.get().value()).isEqualTo(2);
+            assertThat(config.getLastFailure()).isEmpty();
+            assertThat(changes).containsExactly(Collections.singleton("value"));
+        }
+    }
+
+    @Test
+    public void testChangeWhileLoadingInitiallyIsDetected() throws Exception {
+        Path file = writeConfig("value=1");
+        AtomicInteger storesCreated = new AtomicInteger();
+        try (ReloadingConfiguration<IntTestInterface> config = Configuration
+                .loadInterface(IntTestInterface.class)
+                .fromFile(file, f -> {
+                    PropertiesStore store = new PropertiesStore(f);
+                    if (storesCreated.getAndIncrement() == 0) {
+                        Files.write(f, Collections.singletonList("value=2"), StandardCharsets.ISO_8859_1);
+                    }
+                    return store;
+                })
+                .withReloadDelay(Duration.ofMillis(50))
+                .watch()) {
+            assertThat(config.get().value()).isEqualTo(1);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (config.get().value() != 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(config.get().value()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testDeletedDirectoryIsReported() throws Exception {
+        Path directory = folder.newFolder("watched").toPath();
+        Path file = directory.resolve("config.properties");
+        Files.write(file, Collections.singletonList("value=1"), StandardCharsets.ISO_8859_1);
+        try (ReloadingConfiguration<IntTestInterface> config = Configuration
+                .loadInterface(IntTestInterface.class)
+                .fromFile(file, PropertiesStore::new)
+                .withReloadDelay(Duration.ofMillis(50))
+                .watch()) {
+            Files.delete(file);
+            Files.delete(directory);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (!config.getLastFailure().isPresent() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(config.getLastFailure()).isPresent();
+            assertThat(config.get().value()).isEqualTo(1);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStoreCanNotBeWatched() throws Exception {
+        Configuration
+                .loadInterface(TestInterface1.class)
+                .fromStore(new PropertiesStore(writeConfig("someValue=One", "anotherValue=Two")))
+                .watch();
+    }
+}
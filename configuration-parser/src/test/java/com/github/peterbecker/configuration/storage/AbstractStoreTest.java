@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.util.Optional;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.entry;
 
 /**
  * Base class for testing a store.
@@ -140,4 +141,57 @@ public abstract class AbstractStoreTest {
         assertThat(second.nestedOptionalTruth()).isEqualTo(Optional.empty());
         assertThat(second.stringValues()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testListSizes() throws Exception {
+        Store store = getStore("lists");
+        Key nestedFirst = new Key(Key.ROOT, "nested", 0);
+        Key nestedSecond = new Key(Key.ROOT, "nested", 1);
+        assertThat(store.getListSize(new Key(Key.ROOT, "stringValues", -1)).getAsInt()).isEqualTo(3);
+        assertThat(store.getListSize(new Key(Key.ROOT, "nested", -1)).getAsInt()).isEqualTo(2);
+        assertThat(store.getListSize(new Key(nestedFirst, "stringValues", -1)).getAsInt()).isEqualTo(2);
+        assertThat(store.getListSize(new Key(nestedSecond, "stringValues", -1)).getAsInt()).isEqualTo(0);
+        assertThat(store.getListSize(new Key(Key.ROOT, "missing", -1)).getAsInt()).isEqualTo(0);
+    }
+
+    @Test
+    public void testMaps() throws Exception {
+        MapTestInterface config =
+                Configuration
+                        .loadInterface(MapTestInterface.class)
+                        .fromStore(getStore("maps"))
+                        .done();
+        assertThat(config.timeouts()).containsOnly(entry("read", 5), entry("write", 10));
+        assertThat(config.dates()).containsOnly(entry("start", LocalDate.of(2015, 10, 21)));
+        assertThat(config.tenants()).containsOnlyKeys("acme", "globex");
+        NestedTestInterface acme = config.tenants().get("acme");
+        assertThat(acme.nestedInt()).isEqualTo(1);
+        assertThat(acme.nestedDate()).isEqualTo(LocalDate.of(2001, 12, 24));
+        assertThat(acme.nestedOptionalTruth()).isEqualTo(Optional.of(true));
+        NestedTestInterface globex = config.tenants().get("globex");
+        assertThat(globex.nestedInt()).isEqualTo(2);
+        assertThat(globex.nestedOptionalTruth()).isEqualTo(Optional.empty());
+        assertThat(config.missing()).isEmpty();
+    }
+
+    @Test
+    public void testMapKeys() throws Exception {
+        Store store = getStore("maps");
+        Key tenants = new Key(Key.ROOT, "tenants", -1);
+        assertThat(store.getMapKeys(new Key(Key.ROOT, "timeouts", -1)).get()).containsOnly("read", "write");
+        assertThat(store.getMapKeys(tenants).get()).containsOnly("acme", "globex");
+        assertThat(store.getMapKeys(new Key(tenants, "acme", -1)).get())
+                .containsOnly("nestedInt", "nestedDate", "nestedOptionalTruth");
+        assertThat(store.getMapKeys(new Key(Key.ROOT, "missing", -1)).get()).isEmpty();
+    }
+
+    @Test(
+            expected = ConfigurationException.class
+    )
+    public void testMalformedListElement() throws Exception {
+        Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(getStore("malformedList"))
+                .done();
+    }
+}
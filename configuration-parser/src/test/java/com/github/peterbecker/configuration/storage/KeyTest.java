@@ -0,0 +1,58 @@
+package com.github.peterbecker.configuration.storage;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyTest {
+    private static final Key.PathFormat DOTTED = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            String path = contextPath.isEmpty() ? key.getOptionName() : contextPath + "." + key.getOptionName();
+            return key.isIndexed() ? path + "." + key.getIndex() : path;
+        }
+    };
+
+    @Test
+    public void testInterning() {
+        Key nested = Key.of(Key.ROOT, "nested", 3);
+        assertThat(Key.of(Key.ROOT, "nested", 3)).isSameAs(nested);
+        assertThat(Key.of(nested, "value", -1)).isSameAs(Key.of(Key.of(Key.ROOT, "nested", 3), "value", -1));
+        assertThat(Key.of(Key.ROOT, "nested", 20).getIndex()).isEqualTo(20);
+        assertThat(Key.of(Key.ROOT, "nested", -1)).isNotEqualTo(nested);
+    }
+
+    @Test
+    public void testStoreContentIsNotInterned() {
+        Key map = Key.of(Key.ROOT, "tenants", -1);
+        Key entry = Key.entry(map, "acme");
+        assertThat(Key.entry(map, "acme")).isEqualTo(entry).isNotSameAs(entry);
+        // keys below an entry are interned on the entry only
+        assertThat(Key.of(entry, "value", -1)).isSameAs(Key.of(entry, "value", -1));
+        Key late = Key.of(Key.ROOT, "nested", Key.MAX_INTERNED_INDEX);
+        assertThat(Key.of(Key.ROOT, "nested", Key.MAX_INTERNED_INDEX)).isEqualTo(late).isNotSameAs(late);
+        assertThat(Key.of(Key.ROOT, "nested", Key.MAX_INTERNED_INDEX - 1))
+                .isSameAs(Key.of(Key.ROOT, "nested", Key.MAX_INTERNED_INDEX - 1));
+    }
+
+    @Test
+    public void testEquality() {
+        Key interned = Key.of(Key.of(Key.ROOT, "nested", 0), "value", -1);
+        Key created = new Key(new Key(Key.ROOT, "nested", 0), "value", -1);
+        assertThat(created).isEqualTo(interned);
+        assertThat(created.hashCode()).isEqualTo(interned.hashCode());
+    }
+
+    @Test
+    public void testPathIsCached() {
+        Key key = Key.of(Key.of(Key.ROOT, "nested", 1), "value", 2);
+        String path = key.getPath(DOTTED);
+        assertThat(path).isEqualTo("nested.1.value.2");
+        assertThat(key.getPath(DOTTED)).isSameAs(path);
+    }
+}
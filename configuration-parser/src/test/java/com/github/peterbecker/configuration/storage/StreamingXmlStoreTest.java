@@ -0,0 +1,13 @@
+package com.github.peterbecker.configuration.storage;
+
+public class StreamingXmlStoreTest extends AbstractStoreTest {
+    @Override
+    protected String getExtension() {
+        return "xml";
+    }
+
+    @Override
+    protected StoreFactory getStoreFactory() {
+        return StreamingXmlStore::new;
+    }
+}
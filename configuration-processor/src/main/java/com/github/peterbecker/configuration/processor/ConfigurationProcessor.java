@@ -0,0 +1,382 @@
+package com.github.peterbecker.configuration.processor;
+
+import com.github.peterbecker.configuration.v1.Configuration;
+import com.github.peterbecker.configuration.v1.IndexedList;
+import com.github.peterbecker.configuration.v1.Option;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a binder for each interface annotated with {@linkplain Configuration}.
+ * <p/>
+ * The binder contains an implementation class for the interface and for every configuration interface nested in it,
+ * plus the code to fill them from a store. This way no reflection is needed when loading the configuration.
+ */
+@SupportedAnnotationTypes("com.github.peterbecker.configuration.v1.Configuration")
+public class ConfigurationProcessor extends AbstractProcessor {
+    private static final String BINDER_SUFFIX = "Binder";
+
+    /**
+     * The binders written in this compilation. Binders found otherwise are from earlier builds and may be stale, so
+     * they are always generated again.
+     */
+    private final Set<String> generatedBinders = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Configuration.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@Configuration can only be used on interfaces", element);
+                continue;
+            }
+            try {
+                generateBinder((TypeElement) element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Can not write binder: " + e.getMessage(), element);
+            }
+        }
+        return false;
+    }
+
+    private void generateBinder(TypeElement configurationInterface) throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(configurationInterface);
+        String packageName = packageElement.getQualifiedName().toString();
+        String binderName = getBinderSimpleName(configurationInterface);
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        if (!generatedBinders.add(qualifiedName)) {
+            // the interface is processed again in a later round of the same compilation
+            return;
+        }
+
+        // collect all interfaces reachable, the root interface is always first
+        Map<String, TypeElement> interfaces = new LinkedHashMap<>();
+        collectInterfaces(configurationInterface, interfaces);
+        boolean valid = true;
+        for (TypeElement type : interfaces.values()) {
+            valid &= validate(type);
+        }
+        if (!valid) {
+            return;
+        }
+
+        List<String> implementations = new ArrayList<>();
+        for (TypeElement type : interfaces.values()) {
+            implementations.add(generateImplementation(type, interfaces));
+        }
+
+        StringWriter source = new StringWriter();
+        try (PrintWriter out = new PrintWriter(source)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            String rootType = configurationInterface.getQualifiedName().toString();
+            out.println("/**");
+            out.println(" * Binder for {@linkplain " + rootType + "}, generated by " + getClass().getName() + ".");
+            out.println(" */");
+            out.println("public final class " + binderName
+                    + " implements com.github.peterbecker.configuration.parser.Binder<" + rootType + "> {");
+            out.println("    public static " + rootType + " load(com.github.peterbecker.configuration.storage.Store store)");
+            out.println("            throws com.github.peterbecker.configuration.ConfigurationException {");
+            out.println("        return new " + binderName + "().bind(store, java.util.Collections.emptyMap());");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + rootType + " bind(com.github.peterbecker.configuration.storage.Store store,");
+            out.println("            java.util.Map<Class<?>, java.util.function.Function<String, ?>> additionalValueParsers)");
+            out.println("            throws com.github.peterbecker.configuration.ConfigurationException {");
+            out.println("        return bind0(store,");
+            out.println("                com.github.peterbecker.configuration.parser.BindingSupport.valueParsers(additionalValueParsers),");
+            out.println("                com.github.peterbecker.configuration.storage.Key.ROOT);");
+            out.println("    }");
+            for (String implementation : implementations) {
+                out.println();
+                out.print(implementation);
+            }
+            out.println("}");
+        }
+        writeBinder(configurationInterface, packageName, binderName, source.toString());
+    }
+
+    /**
+     * Writes the binder source. If the binder from an earlier build is part of this compilation, it can not be
+     * replaced, so it is only checked to match.
+     */
+    private void writeBinder(TypeElement configurationInterface, String packageName, String binderName, String source)
+            throws IOException {
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        Writer writer;
+        try {
+            writer = processingEnv.getFiler().createSourceFile(qualifiedName, configurationInterface).openWriter();
+        } catch (FilerException e) {
+            FileObject existing = processingEnv.getFiler()
+                    .getResource(StandardLocation.SOURCE_OUTPUT, packageName, binderName + ".java");
+            if (!source.contentEquals(existing.getCharContent(true))) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Binder " + qualifiedName + " from an earlier build is out of date, remove the generated sources",
+                        configurationInterface);
+            }
+            return;
+        }
+        try (Writer out = writer) {
+            out.write(source);
+        }
+    }
+
+    private void collectInterfaces(TypeElement type, Map<String, TypeElement> interfaces) {
+        if (interfaces.containsKey(type.getQualifiedName().toString())) {
+            return;
+        }
+        interfaces.put(type.getQualifiedName().toString(), type);
+        for (ExecutableElement method : getOptionMethods(type)) {
+            TypeMirror returnType = method.getReturnType();
+            if (isList(returnType)) {
+                returnType = getTypeArgument(returnType, 0);
+            } else if (isType(returnType, "java.util.Map")) {
+                returnType = getTypeArgument(returnType, 1);
+            }
+            if (isInterface(returnType) && !isType(returnType, "java.util.Optional")) {
+                collectInterfaces(asElement(returnType), interfaces);
+            }
+        }
+    }
+
+    private String generateImplementation(TypeElement type, Map<String, TypeElement> interfaces) {
+        int number = indexOf(type, interfaces);
+        String typeName = type.getQualifiedName().toString();
+        List<ExecutableElement> methods = getOptionMethods(type);
+        StringBuilder code = new StringBuilder();
+
+        code.append("    private static ").append(typeName).append(" bind").append(number)
+                .append("(com.github.peterbecker.configuration.storage.Store store,\n")
+                .append("            java.util.Map<Class<?>, java.util.function.Function<String, ?>> valueParsers,\n")
+                .append("            com.github.peterbecker.configuration.storage.Key context)\n")
+                .append("            throws com.github.peterbecker.configuration.ConfigurationException {\n")
+                .append("        return new Impl").append(number).append("(");
+        for (int i = 0; i < methods.size(); i++) {
+            code.append(i == 0 ? "\n" : ",\n").append("                ")
+                    .append(valueExpression(methods.get(i), interfaces));
+        }
+        code.append("\n        );\n    }\n\n");
+
+        code.append("    private static final class Impl").append(number).append(" implements ").append(typeName).append(" {\n");
+        for (ExecutableElement method : methods) {
+            code.append("        private final ").append(method.getReturnType()).append(' ')
+                    .append(method.getSimpleName()).append(";\n");
+        }
+        code.append("\n        Impl").append(number).append("(");
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            code.append(i == 0 ? "" : ", ").append(method.getReturnType()).append(' ').append(method.getSimpleName());
+        }
+        code.append(") {\n");
+        for (ExecutableElement method : methods) {
+            code.append("            this.").append(method.getSimpleName()).append(" = ")
+                    .append(method.getSimpleName()).append(";\n");
+        }
+        code.append("        }\n");
+        for (ExecutableElement method : methods) {
+            code.append("\n        @Override\n        public ").append(method.getReturnType()).append(' ')
+                    .append(method.getSimpleName()).append("() {\n            return ")
+                    .append(method.getSimpleName()).append(";\n        }\n");
+        }
+        code.append("    }\n");
+        return code.toString();
+    }
+
+    private String valueExpression(ExecutableElement method, Map<String, TypeElement> interfaces) {
+        String name = method.getSimpleName().toString();
+        TypeMirror returnType = method.getReturnType();
+        String key = "com.github.peterbecker.configuration.storage.Key.of(context, \"" + name + "\", -1)";
+        String support = "com.github.peterbecker.configuration.parser.BindingSupport.";
+        if (isList(returnType)) {
+            TypeMirror elementType = getTypeArgument(returnType, 0);
+            if (isInterface(elementType)) {
+                int number = indexOf(asElement(elementType), interfaces);
+                String elements = support + "nestedList(store, context, \"" + name + "\", valueParsers,\n"
+                        + "                        (s, p, k) -> bind" + number + "(s, p, k))";
+                List<String> indexedBy = getIndexedBy(method);
+                if (isType(returnType, IndexedList.class.getName()) || !indexedBy.isEmpty()) {
+                    String elementName = processingEnv.getTypeUtils().erasure(elementType).toString();
+                    StringBuilder indexed = new StringBuilder(support).append("indexed(").append(elements)
+                            .append(",\n                        new String[]{");
+                    for (int i = 0; i < indexedBy.size(); i++) {
+                        indexed.append(i == 0 ? "\"" : ", \"").append(indexedBy.get(i)).append('"');
+                    }
+                    indexed.append('}');
+                    for (String option : indexedBy) {
+                        indexed.append(", ").append(elementName).append("::").append(option);
+                    }
+                    return indexed.append(')').toString();
+                }
+                return elements;
+            }
+            return support + "list(store, context, \"" + name + "\", " + classLiteral(elementType) + ", valueParsers)";
+        }
+        if (isType(returnType, "java.util.Map")) {
+            TypeMirror valueType = getTypeArgument(returnType, 1);
+            if (isInterface(valueType)) {
+                int number = indexOf(asElement(valueType), interfaces);
+                return support + "nestedMap(store, context, \"" + name + "\", valueParsers,\n"
+                        + "                        (s, p, k) -> bind" + number + "(s, p, k))";
+            }
+            return support + "map(store, context, \"" + name + "\", " + classLiteral(valueType) + ", valueParsers)";
+        }
+        if (isType(returnType, "java.util.Optional")) {
+            return support + "optionalValue(store, " + key + ", " + classLiteral(getTypeArgument(returnType, 0))
+                    + ", valueParsers)";
+        }
+        if (isInterface(returnType)) {
+            return "bind" + indexOf(asElement(returnType), interfaces) + "(store, valueParsers, " + key + ")";
+        }
+        String defaultValue = getDefaultValue(method);
+        return support + "value(store, " + key + ", " + classLiteral(returnType) + ", "
+                + (defaultValue == null ? "null" : processingEnv.getElementUtils().getConstantExpression(defaultValue))
+                + ", valueParsers)";
+    }
+
+    private String getDefaultValue(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (!isType(annotation.getAnnotationType(), Option.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("defaultValue")) {
+                    String value = (String) entry.getValue().getValue();
+                    return Option.NOT_SET.equals(value) ? null : value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> getIndexedBy(ExecutableElement method) {
+        List<String> result = new ArrayList<>();
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (!isType(annotation.getAnnotationType(), Option.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("indexedBy")) {
+                    for (Object value : (List<?>) entry.getValue().getValue()) {
+                        result.add((String) ((AnnotationValue) value).getValue());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports the same problems that the runtime rejects, so that they do not surface as compile errors in the
+     * generated code.
+     */
+    private boolean validate(TypeElement type) {
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (isAbstractInterfaceMethod(method) && !method.getParameters().isEmpty()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        String.format(
+                                "Method %s#%s has parameters, configuration interfaces should not have any",
+                                ((TypeElement) method.getEnclosingElement()).getQualifiedName(),
+                                method.getSimpleName()
+                        ),
+                        method);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private List<ExecutableElement> getOptionMethods(TypeElement type) {
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (isAbstractInterfaceMethod(method) && method.getParameters().isEmpty()) {
+                methods.putIfAbsent(method.getSimpleName().toString(), method);
+            }
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    private static boolean isAbstractInterfaceMethod(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        return modifiers.contains(Modifier.ABSTRACT) && !modifiers.contains(Modifier.STATIC)
+                && method.getEnclosingElement().getKind() == ElementKind.INTERFACE;
+    }
+
+    private String getBinderSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, ((TypeElement) enclosing).getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name + BINDER_SUFFIX;
+    }
+
+    private String classLiteral(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type) + ".class";
+    }
+
+    private static int indexOf(TypeElement type, Map<String, TypeElement> interfaces) {
+        return new ArrayList<>(interfaces.keySet()).indexOf(type.getQualifiedName().toString());
+    }
+
+    private TypeMirror getTypeArgument(TypeMirror type, int index) {
+        return ((DeclaredType) type).getTypeArguments().get(index);
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED && asElement(type).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private boolean isList(TypeMirror type) {
+        return isType(type, "java.util.List") || isType(type, IndexedList.class.getName());
+    }
+
+    private boolean isInterface(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && asElement(type).getKind() == ElementKind.INTERFACE;
+    }
+
+    private static TypeElement asElement(TypeMirror type) {
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+}
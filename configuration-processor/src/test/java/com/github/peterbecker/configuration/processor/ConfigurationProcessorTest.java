@@ -0,0 +1,146 @@
+package com.github.peterbecker.configuration.processor;
+
+import com.github.peterbecker.configuration.BindingMode;
+import com.github.peterbecker.configuration.Configuration;
+import com.github.peterbecker.configuration.parser.Binder;
+import com.github.peterbecker.configuration.parser.ConfigurationMerger;
+import com.github.peterbecker.configuration.storage.PropertiesStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurationProcessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Path getResource() throws Exception {
+        return Paths.get(ConfigurationProcessorTest.class.getResource("/server.properties").toURI());
+    }
+
+    private static String getLocation(Class<?> type) throws Exception {
+        return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    /**
+     * Compiles the interface given with the processor, with the classes of earlier compilations on the class path.
+     *
+     * @return the errors reported
+     */
+    private List<String> compile(String source) throws Exception {
+        Path sourceFile = folder.getRoot().toPath().resolve("src/example/Example.java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        Path classes = folder.getRoot().toPath().resolve("classes");
+        Files.createDirectories(classes);
+        String classPath = String.join(File.pathSeparator, classes.toString(),
+                getLocation(com.github.peterbecker.configuration.v1.Configuration.class), getLocation(Binder.class));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", classPath, "-d", classes.toString(), "-s", classes.toString()),
+                    null, fileManager.getJavaFileObjects(sourceFile.toFile()));
+            task.setProcessors(Arrays.asList(new ConfigurationProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testGeneratedBinder() throws Exception {
+        ServerConfiguration config = ServerConfigurationBinder.load(new PropertiesStore(getResource()));
+        assertThat(config.name()).isEqualTo("main");
+        assertThat(config.workerThreads()).isEqualTo(8);
+        assertThat(config.timeout()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(config.maxRequests()).isEqualTo(Optional.of(10000L));
+        assertThat(config.absentOption()).isEqualTo(Optional.empty());
+        assertThat(config.protocol()).isEqualTo(ServerConfiguration.Protocol.HTTPS);
+        assertThat(config.socket().hostName()).isEqualTo("localhost");
+        assertThat(config.socket().port()).isEqualTo(8080);
+        assertThat(config.aliases()).containsExactly("www", "api");
+        assertThat(config.backends()).hasSize(2);
+        assertThat(config.backends().get(1).hostName()).isEqualTo("backend2");
+        assertThat(config.backends().get(1).port()).isEqualTo(9002);
+        assertThat(config.backends().lookup("hostName", "backend2").get()).isSameAs(config.backends().get(1));
+        assertThat(config.limits()).hasSize(2).containsEntry("connections", 100).containsEntry("queue", 50);
+        assertThat(config.routes()).containsOnlyKeys("api");
+        assertThat(config.routes().get("api").port()).isEqualTo(9100);
+        assertThat(config.describe()).isEqualTo("main with 8 threads");
+    }
+
+    @Test
+    public void testCompiledBindingMode() throws Exception {
+        ServerConfiguration config = Configuration
+                .loadInterface(ServerConfiguration.class)
+                .fromStore(new PropertiesStore(getResource()))
+                .withBindingMode(BindingMode.COMPILED)
+                .withValueParser(Duration.class, s -> Duration.parse(s).multipliedBy(2))
+                .done();
+        assertThat(Proxy.isProxyClass(config.getClass())).isFalse();
+        assertThat(config.getClass().getEnclosingClass()).isEqualTo(ServerConfigurationBinder.class);
+        assertThat(config.socket().port()).isEqualTo(8080);
+        assertThat(config.timeout()).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testMergingKeepsCompiledConfiguration() throws Exception {
+        ServerConfiguration previous = Configuration
+                .loadInterface(ServerConfiguration.class)
+                .fromStore(new PropertiesStore(getResource()))
+                .withBindingMode(BindingMode.COMPILED)
+                .done();
+        ServerConfiguration updated = Configuration
+                .loadInterface(ServerConfiguration.class)
+                .fromStore(new PropertiesStore(getResource()))
+                .withBindingMode(BindingMode.COMPILED)
+                .withValueParser(Duration.class, s -> Duration.parse(s).multipliedBy(2))
+                .done();
+        assertThat(ConfigurationMerger.reuseUnchanged(ServerConfiguration.class, previous, updated))
+                .isSameAs(updated);
+    }
+
+    @Test
+    public void testBinderIsRegenerated() throws Exception {
+        assertThat(compile("package example; @com.github.peterbecker.configuration.v1.Configuration "
+                + "public interface Example { int port(); }")).isEmpty();
+        assertThat(compile("package example; @com.github.peterbecker.configuration.v1.Configuration "
+                + "public interface Example { int port(); String hostName(); }")).isEmpty();
+        String binder = new String(
+                Files.readAllBytes(folder.getRoot().toPath().resolve("classes/example/ExampleBinder.java")),
+                StandardCharsets.UTF_8);
+        assertThat(binder).contains("hostName");
+    }
+
+    @Test
+    public void testMethodWithParametersIsReported() throws Exception {
+        List<String> errors = compile("package example; @com.github.peterbecker.configuration.v1.Configuration "
+                + "public interface Example { int port(); int port(int fallback); }");
+        assertThat(errors).containsExactly(
+                "Method example.Example#port has parameters, configuration interfaces should not have any");
+        assertThat(folder.getRoot().toPath().resolve("classes/example/ExampleBinder.java")).doesNotExist();
+    }
+}
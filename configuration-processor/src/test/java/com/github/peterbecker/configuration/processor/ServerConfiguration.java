@@ -0,0 +1,39 @@
+package com.github.peterbecker.configuration.processor;
+
+import com.github.peterbecker.configuration.v1.Configuration;
+import com.github.peterbecker.configuration.v1.IndexedList;
+import com.github.peterbecker.configuration.v1.Option;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Configuration
+public interface ServerConfiguration {
+    String name();
+    int workerThreads();
+
+    @Option(defaultValue = "PT30S")
+    Duration timeout();
+
+    Optional<Long> maxRequests();
+    Optional<String> absentOption();
+    Protocol protocol();
+    SocketConfiguration socket();
+    List<String> aliases();
+
+    @Option(indexedBy = "hostName")
+    IndexedList<SocketConfiguration> backends();
+
+    Map<String, Integer> limits();
+    Map<String, SocketConfiguration> routes();
+
+    default String describe() {
+        return name() + " with " + workerThreads() + " threads";
+    }
+
+    enum Protocol {
+        HTTP, HTTPS
+    }
+}
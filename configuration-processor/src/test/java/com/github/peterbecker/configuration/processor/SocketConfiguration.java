@@ -0,0 +1,6 @@
+package com.github.peterbecker.configuration.processor;
+
+public interface SocketConfiguration {
+    String hostName();
+    int port();
+}
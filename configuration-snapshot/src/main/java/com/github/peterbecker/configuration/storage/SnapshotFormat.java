@@ -0,0 +1,48 @@
+package com.github.peterbecker.configuration.storage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The layout of snapshot files, shared by {@linkplain SnapshotWriter} and {@linkplain SnapshotStore}.
+ * <p/>
+ * All numbers are big endian ints. A file consists of:
+ * <ol>
+ * <li>the header: {@linkplain #MAGIC}, {@linkplain #VERSION} and the number of entries</li>
+ * <li>the key table: one entry per key, sorted by the UTF-8 bytes of the key path. Each entry holds the offset of the
+ * path in the string pool, the offset of the value ({@linkplain #NONE} if there is none) and the list size
+ * ({@linkplain #NONE} if the key is not a list)</li>
+ * <li>the string pool: each string as its length in bytes followed by the UTF-8 bytes. Equal strings are stored once.
+ * Offsets are relative to the start of the pool.</li>
+ * </ol>
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x43464753; // "CFGS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int ENTRY_SIZE = 12;
+    static final int NONE = -1;
+
+    /**
+     * Renders keys as the option names separated by slashes, with list indexes appended as <code>#index</code>.
+     */
+    static final Key.PathFormat PATHS = new Key.PathFormat() {
+        @Override
+        protected String getRootPath() {
+            return "";
+        }
+
+        @Override
+        protected String render(String contextPath, Key key) {
+            String path = contextPath.isEmpty() ? key.getOptionName() : contextPath + "/" + key.getOptionName();
+            return key.isIndexed() ? path + "#" + key.getIndex() : path;
+        }
+    };
+
+    private SnapshotFormat() {
+        // constants only
+    }
+
+    static byte[] encode(Key key) {
+        return key.getPath(PATHS).getBytes(StandardCharsets.UTF_8);
+    }
+}
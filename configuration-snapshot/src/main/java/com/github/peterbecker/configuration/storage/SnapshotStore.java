@@ -0,0 +1,143 @@
+package com.github.peterbecker.configuration.storage;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Reads values from a snapshot file written by {@linkplain SnapshotWriter}.
+ * <p/>
+ * The file is memory mapped and not parsed up front, opening the store only checks the header. Keys are found by a
+ * binary search over the key table, comparing the bytes in the mapped file, and only the values requested are decoded.
+ * The store is safe for use by multiple threads.
+ * <p/>
+ * Lists and maps that are not part of the snapshot are reported as empty. Map keys are found by scanning the keys
+ * starting with the path of the map, so they can not contain the separators <code>/</code> and <code>#</code>.
+ */
+public class SnapshotStore implements Store {
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int poolStart;
+
+    public SnapshotStore(Path resource) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(resource, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.limit() < SnapshotFormat.HEADER_SIZE || mapped.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a configuration snapshot: " + resource);
+        }
+        if (mapped.getInt(4) != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported snapshot version " + mapped.getInt(4) + " in " + resource);
+        }
+        this.buffer = mapped;
+        this.entryCount = mapped.getInt(8);
+        this.poolStart = SnapshotFormat.HEADER_SIZE + entryCount * SnapshotFormat.ENTRY_SIZE;
+        if (entryCount < 0 || poolStart > mapped.limit()) {
+            throw new IOException("Truncated configuration snapshot: " + resource);
+        }
+    }
+
+    @Override
+    public Optional<String> getValue(Key key) {
+        int entry = find(SnapshotFormat.encode(key));
+        if (entry < 0) {
+            return Optional.empty();
+        }
+        int valueOffset = buffer.getInt(entryPosition(entry) + 4);
+        return valueOffset == SnapshotFormat.NONE ? Optional.empty() : Optional.of(readString(valueOffset));
+    }
+
+    @Override
+    public OptionalInt getListSize(Key key) {
+        int entry = find(SnapshotFormat.encode(key));
+        if (entry < 0) {
+            return OptionalInt.of(0);
+        }
+        int listSize = buffer.getInt(entryPosition(entry) + 8);
+        return OptionalInt.of(Math.max(listSize, 0));
+    }
+
+    /**
+     * Returns the keys of the entries directly below the map, which follow the path of the map in the key table.
+     */
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) {
+        String prefix = key.getPath(SnapshotFormat.PATHS) + "/";
+        int entry = find(prefix.getBytes(StandardCharsets.UTF_8));
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = entry < 0 ? -entry - 1 : entry; i < entryCount; i++) {
+            String path = readString(buffer.getInt(entryPosition(i)));
+            if (!path.startsWith(prefix)) {
+                break;
+            }
+            String remainder = path.substring(prefix.length());
+            if (remainder.indexOf('/') < 0 && remainder.indexOf('#') < 0) {
+                result.add(remainder);
+            }
+        }
+        return Optional.of(result.isEmpty() ? Collections.emptySet() : result);
+    }
+
+    /**
+     * Returns the number of the entry for the path, or <code>-(insertion point) - 1</code> if there is none.
+     */
+    private int find(byte[] path) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparePath(buffer.getInt(entryPosition(middle)), path);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Compares the string in the pool with the path given, in the order of {@linkplain SnapshotWriter#compare}.
+     */
+    private int comparePath(int poolOffset, byte[] path) {
+        int position = poolStart + poolOffset;
+        int length = buffer.getInt(position);
+        position += 4;
+        int common = Math.min(length, path.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(position + i) & 0xFF) - (path[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - path.length;
+    }
+
+    private String readString(int poolOffset) {
+        int position = poolStart + poolOffset;
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        // absolute bulk reads need Java 13, a duplicate keeps the shared position untouched
+        ByteBuffer view = buffer.duplicate();
+        ((Buffer) view).position(position + 4); // Buffer for Java 8, which lacks the covariant override
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int entryPosition(int entry) {
+        return SnapshotFormat.HEADER_SIZE + entry * SnapshotFormat.ENTRY_SIZE;
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.parser.ConfigurationSchema;
+import com.github.peterbecker.configuration.parser.OptionSchema;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Compiles the values of a store into a snapshot file, which can be read with {@linkplain SnapshotStore}.
+ * <p/>
+ * Only the values reachable from the options of the configuration interface are copied, including nested interfaces,
+ * lists and maps. Maps can only be copied from stores that can enumerate their keys. Default values are not applied,
+ * they are still resolved when the configuration is loaded from the snapshot. The snapshot is written to a temporary
+ * file first and then moved into place, so readers never see a partially written file.
+ */
+public final class SnapshotWriter {
+    private SnapshotWriter() {
+        // static methods only
+    }
+
+    /**
+     * Writes the values the configuration interface would read from the store to the target file.
+     */
+    public static void write(Class<?> configurationInterface, Store store, Path target)
+            throws ConfigurationException, IOException {
+        Map<Key, Entry> entries = new HashMap<>();
+        collect(ConfigurationSchema.of(configurationInterface), store, Key.ROOT, entries);
+
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort((a, b) -> compare(a.path, b.path));
+        Map<String, Integer> poolOffsets = new HashMap<>();
+        List<byte[]> pool = new ArrayList<>();
+        int[] poolSize = {0};
+        for (Entry entry : sorted) {
+            entry.pathOffset = addToPool(new String(entry.path, StandardCharsets.UTF_8), poolOffsets, pool, poolSize);
+            if (entry.value != null) {
+                entry.valueOffset = addToPool(entry.value, poolOffsets, pool, poolSize);
+            }
+        }
+
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temporary = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SnapshotFormat.MAGIC);
+                out.writeInt(SnapshotFormat.VERSION);
+                out.writeInt(sorted.size());
+                for (Entry entry : sorted) {
+                    out.writeInt(entry.pathOffset);
+                    out.writeInt(entry.valueOffset);
+                    out.writeInt(entry.listSize);
+                }
+                for (byte[] string : pool) {
+                    out.writeInt(string.length);
+                    out.write(string);
+                }
+            }
+            Files.move(temporary, absoluteTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static int addToPool(String string, Map<String, Integer> offsets, List<byte[]> pool, int[] poolSize) {
+        Integer offset = offsets.get(string);
+        if (offset == null) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            offset = poolSize[0];
+            offsets.put(string, offset);
+            pool.add(bytes);
+            poolSize[0] += 4 + bytes.length;
+        }
+        return offset;
+    }
+
+    /**
+     * Compares byte arrays lexicographically as unsigned values, the order used for the key table.
+     */
+    static int compare(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    private static void collect(ConfigurationSchema<?> schema, Store store, Key context, Map<Key, Entry> entries)
+            throws ConfigurationException {
+        for (OptionSchema option : schema.getOptions()) {
+            Key key = Key.of(context, option.getName(), -1);
+            switch (option.getKind()) {
+                case VALUE:
+                case OPTIONAL: {
+                    Optional<String> value = store.getValue(key);
+                    if (value.isPresent()) {
+                        entry(key, entries).value = value.get();
+                    }
+                    break;
+                }
+                case LIST: {
+                    OptionalInt size = store.getListSize(key);
+                    int count = 0;
+                    for (int i = 0; !size.isPresent() || i < size.getAsInt(); i++) {
+                        Optional<String> value = store.getValue(Key.of(context, option.getName(), i));
+                        if (value.isPresent()) {
+                            entry(Key.of(context, option.getName(), i), entries).value = value.get();
+                        } else if (!size.isPresent()) {
+                            break;
+                        }
+                        count = i + 1;
+                    }
+                    entry(key, entries).listSize = count;
+                    break;
+                }
+                case NESTED:
+                    collect(ConfigurationSchema.of(option.getValueType()), store, key, entries);
+                    break;
+                case NESTED_LIST: {
+                    ConfigurationSchema<?> elementSchema = ConfigurationSchema.of(option.getValueType());
+                    OptionalInt size = store.getListSize(key);
+                    int count = 0;
+                    for (int i = 0; !size.isPresent() || i < size.getAsInt(); i++) {
+                        Map<Key, Entry> elementEntries = new HashMap<>();
+                        collect(elementSchema, store, Key.of(context, option.getName(), i), elementEntries);
+                        if (!size.isPresent() && !hasValues(elementEntries)) {
+                            // the store can not tell the size, an element without any values ends the list
+                            break;
+                        }
+                        entries.putAll(elementEntries);
+                        count = i + 1;
+                    }
+                    entry(key, entries).listSize = count;
+                    break;
+                }
+                case MAP:
+                    for (String entry : getMapKeys(store, key)) {
+                        Key entryKey = Key.entry(key, entry);
+                        // entries without value are kept, so that loading the snapshot reports them like the store
+                        entry(entryKey, entries).value = store.getValue(entryKey).orElse(null);
+                    }
+                    break;
+                case NESTED_MAP: {
+                    ConfigurationSchema<?> elementSchema = ConfigurationSchema.of(option.getValueType());
+                    for (String entry : getMapKeys(store, key)) {
+                        Key entryKey = Key.entry(key, entry);
+                        // the entry itself is recorded, so that it is found even if all its values are defaults
+                        entry(entryKey, entries);
+                        collect(elementSchema, store, entryKey, entries);
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown option kind " + option.getKind());
+            }
+        }
+    }
+
+    private static Set<String> getMapKeys(Store store, Key key) throws ConfigurationException {
+        Optional<Set<String>> mapKeys = store.getMapKeys(key);
+        if (!mapKeys.isPresent()) {
+            throw new ConfigurationException(
+                    "Store " + store.getClass().getName() + " does not support map option " + key.getOptionName());
+        }
+        return mapKeys.get();
+    }
+
+    private static boolean hasValues(Map<Key, Entry> entries) {
+        for (Entry entry : entries.values()) {
+            if (entry.value != null || entry.listSize > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry entry(Key key, Map<Key, Entry> entries) {
+        return entries.computeIfAbsent(key, k -> new Entry(SnapshotFormat.encode(k)));
+    }
+
+    private static final class Entry {
+        private final byte[] path;
+        private String value;
+        private int listSize = SnapshotFormat.NONE;
+        private int pathOffset;
+        private int valueOffset = SnapshotFormat.NONE;
+
+        private Entry(byte[] path) {
+            this.path = path;
+        }
+    }
+}
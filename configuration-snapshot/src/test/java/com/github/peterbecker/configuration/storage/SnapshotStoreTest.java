@@ -0,0 +1,90 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.ListTestInterface;
+import com.github.peterbecker.configuration.MapTestInterface;
+import com.github.peterbecker.configuration.NestingTestInterface;
+import com.github.peterbecker.configuration.TestInterface1;
+import com.github.peterbecker.configuration.TestInterfaceWithDefaults;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the store tests against snapshots compiled from the properties files.
+ */
+public class SnapshotStoreTest extends AbstractStoreTest {
+    private static final Map<String, Class<?>> INTERFACES = new HashMap<>();
+
+    static {
+        INTERFACES.put("basic", TestInterface1.class);
+        INTERFACES.put("missingValue", TestInterface1.class);
+        INTERFACES.put("defaults", TestInterfaceWithDefaults.class);
+        INTERFACES.put("nesting", NestingTestInterface.class);
+        INTERFACES.put("lists", ListTestInterface.class);
+        INTERFACES.put("malformedList", ListTestInterface.class);
+        INTERFACES.put("maps", MapTestInterface.class);
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Override
+    protected String getExtension() {
+        return "properties";
+    }
+
+    @Override
+    protected StoreFactory getStoreFactory() {
+        return PropertiesStore::new;
+    }
+
+    @Override
+    protected Store getStore(String resourceBaseName) throws IOException {
+        Path snapshot = folder.getRoot().toPath().resolve(resourceBaseName + ".snapshot");
+        try {
+            SnapshotWriter.write(INTERFACES.get(resourceBaseName), super.getStore(resourceBaseName), snapshot);
+        } catch (ConfigurationException e) {
+            throw new IOException(e);
+        }
+        return new SnapshotStore(snapshot);
+    }
+
+    @Test
+    public void testOnlyInterfaceValuesAreWritten() throws Exception {
+        Store store = getStore("nesting");
+        assertThat(store.getValue(Key.of(Key.ROOT, "toplevelInt", -1))).isEqualTo(Optional.of("12"));
+        assertThat(store.getValue(Key.of(Key.of(Key.ROOT, "nested", -1), "nestedDate", -1)))
+                .isEqualTo(Optional.of("2011-11-11"));
+        assertThat(store.getValue(Key.of(Key.ROOT, "nestedInt", -1))).isEqualTo(Optional.empty());
+        assertThat(store.getValue(Key.of(Key.ROOT, "unknown", -1))).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    public void testSnapshotOfStoreWithoutListSizes() throws Exception {
+        Store source = super.getStore("lists");
+        Path snapshot = folder.getRoot().toPath().resolve("probed.snapshot");
+        SnapshotWriter.write(ListTestInterface.class, source::getValue, snapshot);
+        Store store = new SnapshotStore(snapshot);
+        assertThat(store.getListSize(Key.of(Key.ROOT, "intValues", -1)).getAsInt()).isEqualTo(4);
+        assertThat(store.getListSize(Key.of(Key.ROOT, "nested", -1)).getAsInt()).isEqualTo(2);
+        assertThat(store.getValue(Key.of(Key.of(Key.ROOT, "nested", 0), "stringValues", 1)))
+                .isEqualTo(Optional.of("007"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws Exception {
+        Path file = folder.newFile("invalid.snapshot").toPath();
+        Files.write(file, "someValue=One".getBytes());
+        new SnapshotStore(file);
+    }
+}
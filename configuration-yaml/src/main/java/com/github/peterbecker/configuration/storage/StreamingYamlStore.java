@@ -0,0 +1,295 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * A Store reading YAML files from the parser events, without constructing Java objects.
+ * <p/>
+ * Every node gets a number and the index maps a node number plus <code>/key</code> or <code>#index</code> to the
+ * number of the child node. Aliases refer to the number of the anchored node, so shared subtrees are only indexed
+ * once. Merge keys (<code>&lt;&lt;: *anchor</code>) are resolved like in the {@linkplain YamlStore}: the entries of the
+ * merged mappings are added unless the mapping has an entry with the same key, earlier mappings in a merged sequence
+ * take precedence over later ones. Lookups behave the same as in the {@linkplain YamlStore}, except that scalar values
+ * are used as written, explicit tags are ignored, and mappings or sequences do not have a value.
+ */
+public class StreamingYamlStore implements Store {
+    private static final int MISSING = -1;
+    /**
+     * Marks mappings in {@linkplain #sizes}.
+     */
+    private static final int MAPPING = -1;
+    /**
+     * Marks scalars in {@linkplain #sizes}.
+     */
+    private static final int SCALAR = -2;
+
+    /**
+     * Child node numbers by parent number plus key or index.
+     */
+    private final Map<String, Integer> children = new HashMap<>();
+    /**
+     * The keys of the mapping nodes by node number, mappings without keys are not contained.
+     */
+    private final Map<Integer, Set<String>> mappingKeys = new HashMap<>();
+    /**
+     * The values of the scalar nodes by node number, null for other nodes.
+     */
+    private final List<String> scalars = new ArrayList<>();
+    /**
+     * The size of sequences by node number, {@linkplain #MAPPING} or {@linkplain #SCALAR} for other nodes.
+     */
+    private int[] sizes = new int[16];
+    private int root = MISSING;
+
+    public StreamingYamlStore(Path resource) throws IOException {
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(StreamingYamlStore.class, resource);
+             Reader in = Files.newBufferedReader(resource)) {
+            index(new Yaml().parse(in));
+        }
+        if (root == MISSING) { // empty document
+            root = addNode(MAPPING, null);
+        }
+        sizes = Arrays.copyOf(sizes, scalars.size());
+        if (sizes[root] != MAPPING) {
+            throw new IOException("YAML file does not contain a mapping.");
+        }
+    }
+
+    private void index(Iterable<Event> events) throws IOException {
+        Map<String, Integer> anchors = new HashMap<>();
+        Deque<Frame> frames = new ArrayDeque<>();
+        for (Event event : events) {
+            if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                Frame frame = frames.pop();
+                if (!frame.mapping) {
+                    sizes[frame.node] = frame.size;
+                } else if (frame.merged != null) {
+                    merge(frame.node, frame.merged);
+                }
+                continue;
+            }
+            if (event.is(Event.ID.DocumentEnd)) {
+                return; // only the first document is used, same as Yaml.load
+            }
+            if (!(event instanceof NodeEvent)) {
+                continue;
+            }
+            Frame parent = frames.peek();
+            boolean isKey = parent != null && parent.mapping && parent.key == null;
+            int node;
+            if (event instanceof AliasEvent) {
+                Integer anchored = anchors.get(((AliasEvent) event).getAnchor());
+                if (anchored == null) {
+                    throw new IOException("Unknown alias " + ((AliasEvent) event).getAnchor());
+                }
+                node = anchored;
+            } else if (event instanceof ScalarEvent) {
+                node = addNode(SCALAR, ((ScalarEvent) event).getValue());
+            } else {
+                node = addNode(event.is(Event.ID.MappingStart) ? MAPPING : 0, null);
+            }
+            String anchor = ((NodeEvent) event).getAnchor();
+            if (anchor != null && !(event instanceof AliasEvent)) {
+                anchors.put(anchor, node);
+            }
+            if (parent == null) {
+                root = node;
+            } else if (isKey) {
+                // keys that are not scalars can not be looked up, their values are skipped
+                String key = scalars.get(node);
+                if (isMergeKey(event)) {
+                    parent.key = Frame.MERGE;
+                } else {
+                    parent.key = key == null ? Frame.SKIPPED : key;
+                }
+            } else if (parent.mapping) {
+                if (parent.key == Frame.MERGE) {
+                    // resolved at the end of the mapping, since explicit entries take precedence wherever they are
+                    if (parent.merged == null) {
+                        parent.merged = new ArrayList<>();
+                    }
+                    parent.merged.add(node);
+                } else if (parent.key != Frame.SKIPPED) {
+                    children.put(node(parent.node, parent.key), node);
+                    mappingKeys.computeIfAbsent(parent.node, n -> new LinkedHashSet<>()).add(parent.key);
+                }
+                parent.key = null;
+            } else {
+                children.put(element(parent.node, parent.size++), node);
+            }
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                frames.push(new Frame(node, event.is(Event.ID.MappingStart)));
+            }
+        }
+    }
+
+    private static boolean isMergeKey(Event event) {
+        return event instanceof ScalarEvent
+                && "<<".equals(((ScalarEvent) event).getValue())
+                && ((ScalarEvent) event).getScalarStyle() == DumperOptions.ScalarStyle.PLAIN;
+    }
+
+    /**
+     * Adds the entries of the merged mappings that the mapping does not have already.
+     *
+     * @param merged the values of the merge keys, mappings or sequences of mappings
+     */
+    private void merge(int mapping, List<Integer> merged) throws IOException {
+        List<Integer> sources = new ArrayList<>();
+        for (int node : merged) {
+            if (sizes[node] == MAPPING) {
+                sources.add(node);
+            } else if (sizes[node] >= 0) {
+                for (int i = 0; i < sizes[node]; i++) {
+                    sources.add(children.get(element(node, i)));
+                }
+            } else {
+                throw new IOException("Merge keys need mappings or sequences of mappings");
+            }
+        }
+        Set<String> explicitKeys = mappingKeys.getOrDefault(mapping, Collections.emptySet());
+        Set<String> keys = new LinkedHashSet<>();
+        for (int source : sources) {
+            if (sizes[source] != MAPPING) {
+                throw new IOException("Merge keys need mappings or sequences of mappings");
+            }
+            for (String key : mappingKeys.getOrDefault(source, Collections.emptySet())) {
+                if (!explicitKeys.contains(key) && keys.add(key)) {
+                    children.put(node(mapping, key), children.get(node(source, key)));
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            keys.addAll(explicitKeys);
+            mappingKeys.put(mapping, keys);
+        }
+    }
+
+    private int addNode(int size, String value) {
+        int node = scalars.size();
+        scalars.add(value);
+        if (node == sizes.length) {
+            sizes = Arrays.copyOf(sizes, node * 2);
+        }
+        sizes[node] = size;
+        return node;
+    }
+
+    private static String node(int parent, String key) {
+        return parent + "/" + key;
+    }
+
+    private static String element(int parent, int index) {
+        return parent + "#" + index;
+    }
+
+    @Override
+    public Optional<String> getValue(Key key) throws ConfigurationException {
+        int node = getNode(key);
+        if (node == MISSING) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(scalars.get(node));
+    }
+
+    @Override
+    public OptionalInt getListSize(Key key) throws ConfigurationException {
+        int context = getContextNode(key);
+        if (context == MISSING) {
+            return OptionalInt.of(0);
+        }
+        Integer node = children.get(node(context, key.getOptionName()));
+        return OptionalInt.of(node == null ? 0 : Math.max(sizes[node], 0));
+    }
+
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) throws ConfigurationException {
+        int node = getNode(key);
+        if (node == MISSING || sizes[node] != MAPPING) {
+            return Optional.of(Collections.emptySet());
+        }
+        return Optional.of(Collections.unmodifiableSet(mappingKeys.getOrDefault(node, Collections.emptySet())));
+    }
+
+    private int getNode(Key key) throws ConfigurationException {
+        int context = getContextNode(key);
+        if (context == MISSING) {
+            return MISSING;
+        }
+        Integer node = children.get(node(context, key.getOptionName()));
+        if (node != null && key.isIndexed()) {
+            node = sizes[node] < 0 ? null : children.get(element(node, key.getIndex()));
+        }
+        return node == null ? MISSING : node;
+    }
+
+    /**
+     * Finds the mapping the key refers to, throwing an exception if the context exists but is not a mapping.
+     */
+    private int getContextNode(Key key) throws ConfigurationException {
+        if (key.isTopLevel()) {
+            return root;
+        }
+        int parent = getNode(key.getContext());
+        if (parent == MISSING) {
+            return MISSING;
+        }
+        if (sizes[parent] != MAPPING) {
+            throw new ConfigurationException(key.getOptionName() + " is not an object");
+        }
+        return parent;
+    }
+
+    private static final class Frame {
+        /**
+         * Marker for the key of a mapping entry that can not be looked up.
+         */
+        private static final String SKIPPED = new String("<skipped>");
+        /**
+         * Marker for the key of a merge entry, whose value is merged into the mapping.
+         */
+        private static final String MERGE = new String("<<");
+
+        private final int node;
+        private final boolean mapping;
+        /**
+         * The key of the current entry while reading its value, null while reading the key.
+         */
+        private String key;
+        private int size;
+        /**
+         * The values of the merge keys of a mapping, null if there are none.
+         */
+        private List<Integer> merged;
+
+        private Frame(int node, boolean mapping) {
+            this.node = node;
+            this.mapping = mapping;
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.github.peterbecker.configuration.storage;
 
 import com.github.peterbecker.configuration.ConfigurationException;
+import com.github.peterbecker.configuration.jfr.EventScope;
+import com.github.peterbecker.configuration.jfr.FlightRecorderEvents;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public class YamlStore implements Store {
@@ -20,12 +27,14 @@ public class YamlStore implements Store {
 
     @SuppressWarnings("unchecked")
     public YamlStore(Path resource) throws IOException {
-        Yaml yaml = new Yaml(
-                new Constructor(), // default
-                new Representer(), // default
-                new DumperOptions(), // default
-                new CustomResolver());
-        data = yaml.load(Files.newBufferedReader(resource));
+        try (EventScope event = FlightRecorderEvents.beginStoreParse(YamlStore.class, resource)) {
+            Yaml yaml = new Yaml(
+                    new Constructor(), // default
+                    new Representer(), // default
+                    new DumperOptions(), // default
+                    new CustomResolver());
+            data = yaml.load(Files.newBufferedReader(resource));
+        }
     }
 
     @Override
@@ -33,6 +42,28 @@ public class YamlStore implements Store {
         return getNode(data,key).map(Object::toString);
     }
 
+    @Override
+    public OptionalInt getListSize(Key key) throws ConfigurationException {
+        Optional<Object> node = getContextObject(data, key).map(o -> o.get(key.getOptionName()));
+        if (!node.isPresent() || !(node.get() instanceof List)) {
+            return OptionalInt.of(0);
+        }
+        return OptionalInt.of(((List<?>) node.get()).size());
+    }
+
+    @Override
+    public Optional<Set<String>> getMapKeys(Key key) throws ConfigurationException {
+        Optional<Object> node = getNode(data, key);
+        if (!node.isPresent() || !(node.get() instanceof Map)) {
+            return Optional.of(Collections.emptySet());
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (Object mapKey : ((Map<?, ?>) node.get()).keySet()) {
+            keys.add(String.valueOf(mapKey));
+        }
+        return Optional.of(keys);
+    }
+
     private Optional<Object> getNode(Map<String, Object> context, Key key) throws ConfigurationException {
         Optional<Object> node = getContextObject(context, key).map(o -> o.get(key.getOptionName()));
         if(key.isIndexed()) {
@@ -68,7 +99,8 @@ public class YamlStore implements Store {
 
     private class CustomResolver extends Resolver {
         protected void addImplicitResolvers() {
-            // no implicit resolving, that is up to the Configuration Parser
+            // no implicit resolving of values, that is up to the Configuration Parser, but merge keys are applied
+            addImplicitResolver(Tag.MERGE, MERGE, "<");
         }
     }
 }
@@ -0,0 +1,55 @@
+package com.github.peterbecker.configuration.storage;
+
+import com.github.peterbecker.configuration.Configuration;
+import com.github.peterbecker.configuration.ListTestInterface;
+import com.github.peterbecker.configuration.MapTestInterface;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for YAML features that all YAML stores have to handle the same way.
+ */
+public abstract class AbstractYamlStoreTest extends AbstractStoreTest {
+
+    @Override
+    protected String getExtension() {
+        return "yaml";
+    }
+
+    @Test
+    public void testAliases() throws Exception {
+        ListTestInterface config = Configuration
+                .loadInterface(ListTestInterface.class)
+                .fromStore(getStore("aliases"))
+                .done();
+        assertThat(config.stringValues()).containsExactly("First", "Second");
+        assertThat(config.intValues()).containsExactly(7, 7);
+        assertThat(config.dates()).isEmpty();
+        assertThat(config.nested()).hasSize(2);
+        for (int i = 0; i < 2; i++) {
+            assertThat(config.nested().get(i).nestedInt()).isEqualTo(456);
+            assertThat(config.nested().get(i).nestedDate()).isEqualTo(LocalDate.of(2001, 12, 24));
+            assertThat(config.nested().get(i).stringValues()).containsExactly("First", "Second");
+        }
+    }
+
+    @Test
+    public void testMergeKeys() throws Exception {
+        MapTestInterface config = Configuration
+                .loadInterface(MapTestInterface.class)
+                .fromStore(getStore("merge"))
+                .done();
+        assertThat(config.timeouts()).hasSize(3)
+                .containsEntry("read", 7)
+                .containsEntry("write", 10)
+                .containsEntry("connect", 3);
+        assertThat(config.tenants()).containsOnlyKeys("acme", "globex");
+        assertThat(config.tenants().get("globex").nestedInt()).isEqualTo(2);
+        assertThat(config.tenants().get("globex").nestedDate()).isEqualTo(LocalDate.of(2001, 12, 24));
+        assertThat(config.tenants().get("globex").nestedOptionalTruth()).isEqualTo(Optional.of(true));
+    }
+}
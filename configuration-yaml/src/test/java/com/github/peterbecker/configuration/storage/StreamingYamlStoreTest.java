@@ -0,0 +1,9 @@
+package com.github.peterbecker.configuration.storage;
+
+public class StreamingYamlStoreTest extends AbstractYamlStoreTest {
+
+    @Override
+    protected StoreFactory getStoreFactory() {
+        return StreamingYamlStore::new;
+    }
+}
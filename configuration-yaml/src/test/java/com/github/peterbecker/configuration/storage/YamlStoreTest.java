@@ -1,14 +1,9 @@
 package com.github.peterbecker.configuration.storage;
 
-public class YamlStoreTest extends AbstractStoreTest {
-
-    @Override
-    protected String getExtension() {
-        return "yaml";
-    }
+public class YamlStoreTest extends AbstractYamlStoreTest {
 
     @Override
     protected StoreFactory getStoreFactory() {
         return YamlStore::new;
     }
-}
\ No newline at end of file
+}